@@ -0,0 +1,65 @@
+package com.Benchmark;
+
+import com.Game.Board.Board;
+import com.Game.Board.DefaultBoardState;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.Position;
+import com.Game.Solver.Heuristic.Heuristic;
+import com.Game.Solver.SolverFactory;
+import com.Parser.NewLineParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The boards and heuristics shared by the benchmarks, named by strings so they can be used as JMH parameters.
+ * The benchmarks run from the root directory of the project, where BoardExamples is.
+ */
+final class BenchmarkBoards {
+
+    private static final String BOARD_DIRECTORY = "BoardExamples";
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * @param board Either the path of a file within BoardExamples without extension, such as "4x4/hardBoard", or a
+     *              seeded scramble "scramble/size/moves/seed"
+     * @return The state of the board
+     */
+    static TaquinBoardState load(String board) {
+        var parts = board.split("/");
+        if (parts[0].equals("scramble")) {
+            int size = Integer.parseInt(parts[1]);
+            return new Board(TaquinBoardState.ofSize(size), Integer.parseInt(parts[2]), Long.parseLong(parts[3]))
+                    .getBoardState();
+        }
+        try {
+            return new NewLineParser().parseFile(new File(BOARD_DIRECTORY, board + ".txt")).getBoardState();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The same board stored as a DefaultBoardState, to compare with the packed representation
+     */
+    static TaquinBoardState asDefault(TaquinBoardState state) {
+        var copy = new DefaultBoardState(state.getSize());
+        for (int y = 0; y < state.getSize(); y++) {
+            for (int x = 0; x < state.getSize(); x++) {
+                copy.addCell(new Position(x, y), state.getAtPosition(x, y));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @param heuristic The name of the heuristic, as in the drop-down menu of the user interface
+     */
+    static Heuristic heuristic(String heuristic, TargetBoardState targetBoard) {
+        return SolverFactory.createHeuristic(heuristic, targetBoard);
+    }
+}
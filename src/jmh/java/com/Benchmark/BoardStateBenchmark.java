@@ -0,0 +1,87 @@
+package com.Benchmark;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The board operations every solver performs for each generated state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardStateBenchmark {
+
+    @Param({"3x3/hardBoard", "4x4/givenExample"})
+    private String board;
+
+    @Param({"packed", "default"})
+    private String representation;
+
+    private TaquinBoardState state;
+    private TaquinBoardAction action;
+    private TaquinBoardAction reverseAction;
+    private TaquinBoardDirection direction;
+
+    @Setup
+    public void setup() {
+        state = BenchmarkBoards.load(board);
+        if (representation.equals("default")) {
+            state = BenchmarkBoards.asDefault(state);
+        }
+        direction = state.getLegalMoves()[0];
+        action = TaquinBoardAction.mapFromDirection(direction);
+        reverseAction = TaquinBoardAction.mapFromDirection(direction.mapFromOpposite());
+    }
+
+    @Benchmark
+    public TaquinBoardState copy() {
+        return state.copy();
+    }
+
+    /**
+     * A move and the move undoing it, so the board stays the same across invocations
+     */
+    @Benchmark
+    public TaquinBoardState processAction() {
+        state.processAction(action, state.getEmptyPosition());
+        state.processAction(reverseAction, state.getEmptyPosition());
+        return state;
+    }
+
+    /**
+     * Same as processAction, through the move table of the empty cell
+     */
+    @Benchmark
+    public TaquinBoardState moveEmpty() {
+        state.moveEmpty(direction);
+        state.moveEmpty(direction.mapFromOpposite());
+        return state;
+    }
+
+    @Benchmark
+    public TaquinBoardDirection[] getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Benchmark
+    public int hashCode() {
+        return state.hashCode();
+    }
+}
@@ -0,0 +1,66 @@
+package com.Benchmark;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TargetBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+import com.Game.Solver.SolutionStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The evaluation of a state by each heuristic, from scratch and from the estimate of its parent.
+ * The pattern databases are generated in the pattern-databases directory on the first run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBenchmark {
+
+    @Param({"3x3/hardBoard", "4x4/givenExample"})
+    private String board;
+
+    @Param({"Uniform Cost", "Displacement", "Manhattan Distance", "Linear Conflict", "Walking Distance",
+            "Pattern Database"})
+    private String heuristicName;
+
+    private Heuristic heuristic;
+    private SolutionStep root;
+    private SolutionStep child;
+
+    @Setup
+    public void setup() {
+        var state = BenchmarkBoards.load(board);
+        heuristic = BenchmarkBoards.heuristic(heuristicName, new TargetBoardState(state.getSize()));
+        root = new SolutionStep(state, null, null, 0);
+        root.setHeuristicValue(heuristic.getResult(root));
+
+        var direction = state.getLegalMoves()[0];
+        var childState = state.copy();
+        childState.moveEmpty(direction);
+        child = new SolutionStep(childState, root, TaquinBoardAction.mapFromDirection(direction), 1);
+    }
+
+    @Benchmark
+    public int getResultOfRoot() {
+        return heuristic.getResult(root);
+    }
+
+    @Benchmark
+    public int getResultOfChild() {
+        return heuristic.getResult(child);
+    }
+}
@@ -0,0 +1,63 @@
+package com.Benchmark;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Solver.AStar;
+import com.Game.Solver.ArenaAStar;
+import com.Game.Solver.GreedyAstar;
+import com.Game.Solver.IDAStar;
+import com.Game.Solver.TaquinSolutionAlgorithm;
+import com.Game.Solver.TaquinSolutionHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full solves with the Manhattan distance, on example boards and seeded scrambles.
+ * The 4x4 given example is left out, IDAStar needs minutes to solve it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"3x3/hardBoard", "4x4/mediumBoard", "4x4/hardBoard", "scramble/3/100/42", "scramble/4/60/42"})
+    private String board;
+
+    @Param({"A*", "ArenaA*", "IDA*", "GreedyA*"})
+    private String algorithmName;
+
+    private TaquinBoardState state;
+    private TaquinSolutionAlgorithm algorithm;
+
+    @Setup
+    public void setup() {
+        state = BenchmarkBoards.load(board);
+        var heuristic = BenchmarkBoards.heuristic("Manhattan Distance", new TargetBoardState(state.getSize()));
+        algorithm = switch (algorithmName) {
+            case "A*" -> new AStar(heuristic, false);
+            case "ArenaA*" -> new ArenaAStar(heuristic, false);
+            case "IDA*" -> new IDAStar(heuristic, false);
+            case "GreedyA*" -> new GreedyAstar(heuristic, false);
+            default -> throw new IllegalArgumentException("Unknown algorithm " + algorithmName);
+        };
+    }
+
+    @Benchmark
+    public TaquinSolutionHolder solve() {
+        return algorithm.solve(state.copy(), -1, -1);
+    }
+}
@@ -0,0 +1,481 @@
+package com.Application;
+
+import com.Game.Board.Board;
+import com.Game.Board.PuzzleCorpus;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.Heuristic.Heuristic;
+import com.Game.Solver.Heuristic.UniformCostHeuristic;
+import com.Game.Solver.Metrics.SearchMetrics;
+import com.Game.Solver.ReductionSolver;
+import com.Game.Solver.SolutionStep;
+import com.Game.Solver.SolutionCache;
+import com.Game.Solver.SolverFactory;
+import com.Game.Solver.SpillingFrontier;
+import com.Game.Solver.TaquinSolutionAlgorithm;
+import com.Game.Solver.TaquinSolutionHolder;
+import com.Parser.NewLineParser;
+
+import javax.management.JMException;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Solves puzzles from the command line, without the user interface.
+ * The puzzles are read from files in the NewLineParser format, each file holding one or more boards separated by
+ * empty lines, from corpora written by ScrambleGenerator, or from directories of such files. They are solved
+ * concurrently on a fixed thread pool, each with its own budget, and one line of results is written per puzzle as
+ * soon as it is solved, in CSV or JSON.
+ * <p>
+ * The results are the only output written to the standard output: the logs of the parser and the algorithms are
+ * moved to the standard error.
+ */
+public class BatchSolver {
+
+    private static final String USAGE = """
+            Usage: <file, corpus or directory>... [options]
+              --algorithm <name>      A*, IDA*, InPlaceIDA*, ParallelIDA*, GreedyA*, BucketA*, IndexedA*,
+                                      ArenaA*, HDA*, MM, ARA*, Beam or Reduction (default A*)
+              --heuristic <name>      Uniform Cost, Displacement, Manhattan Distance, Linear Conflict,
+                                      Pattern Database or Walking Distance (default Manhattan Distance)
+              --threads <n>           number of puzzles solved at the same time (default: number of processors)
+              --max-runtime <ms>      runtime budget of each puzzle (default: none)
+              --max-frontier <n>      frontier size budget of each puzzle, the beam width of Beam (default: none)
+              --spill-directory <dir> A* and GreedyA* write the frontier above the budget to files in this
+                                      directory instead of giving up (budget default: 1048576)
+              --cache <file>          look the puzzles up in this file of solutions, and append the new ones
+              --metrics               publish the metrics of the searches running over JMX
+              --format <csv|json>     format of the results (default csv)""";
+
+    private static final String[] COLUMNS = {"puzzle", "size", "algorithm", "heuristic", "status",
+            "solutionLength", "elapsedMillis", "maxFrontierSize", "expansions", "moves"};
+
+    private final String algorithmName;
+    private final String heuristicName;
+    private final long maxRuntime;
+    private final long maxFrontierSize;
+    private final Path spillDirectory;
+    private final SolutionCache cache;
+    private final boolean metrics;
+    private final boolean json;
+    private final PrintStream output;
+
+    /**
+     * The heuristics are shared between the threads, one per board size, since some of them are costly to build
+     */
+    private final Map<Integer, Heuristic> heuristics = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxRuntime      In nanoseconds, -1 for no limit
+     * @param maxFrontierSize -1 for no limit
+     * @param spillDirectory  Where the frontiers above maxFrontierSize are written, null to give up instead
+     * @param cache           The solutions already found, null to always solve the puzzles
+     * @param metrics         Whether to register the SearchMetrics of each puzzle over JMX while it is solved
+     * @param json            Whether to write JSON lines instead of CSV
+     * @param output          Where to write the results
+     */
+    BatchSolver(String algorithmName, String heuristicName, long maxRuntime, long maxFrontierSize,
+                Path spillDirectory, SolutionCache cache, boolean metrics, boolean json, PrintStream output) {
+        this.algorithmName = algorithmName;
+        this.heuristicName = heuristicName;
+        this.maxRuntime = maxRuntime;
+        this.maxFrontierSize = maxFrontierSize;
+        this.spillDirectory = spillDirectory;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.json = json;
+        this.output = output;
+    }
+
+    public static void main(String[] args) {
+        var results = System.out;
+        System.setOut(System.err);
+
+        var paths = new ArrayList<Path>();
+        var algorithm = "A*";
+        var heuristic = "Manhattan Distance";
+        var threads = Runtime.getRuntime().availableProcessors();
+        long maxRuntime = -1;
+        long maxFrontierSize = -1;
+        Path spillDirectory = null;
+        Path cacheFile = null;
+        var metrics = false;
+        var json = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--algorithm" -> algorithm = args[++i];
+                    case "--heuristic" -> heuristic = args[++i];
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--max-runtime" -> maxRuntime = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[++i]));
+                    case "--max-frontier" -> maxFrontierSize = Long.parseLong(args[++i]);
+                    case "--spill-directory" -> spillDirectory = Path.of(args[++i]);
+                    case "--cache" -> cacheFile = Path.of(args[++i]);
+                    case "--metrics" -> metrics = true;
+                    case "--format" -> json = switch (args[++i]) {
+                        case "csv" -> false;
+                        case "json" -> true;
+                        default -> throw new IllegalArgumentException("Unknown format " + args[i]);
+                    };
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option " + args[i]);
+                        }
+                        paths.add(Path.of(args[i]));
+                    }
+                }
+            }
+            if (paths.isEmpty() || threads < 1) {
+                throw new IllegalArgumentException("Expected at least one file and a positive number of threads");
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() == null ? "Missing option value" : e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            var cache = cacheFile == null ? null : new SolutionCache(SolutionCache.DEFAULT_CAPACITY, cacheFile);
+            var solver = new BatchSolver(algorithm, heuristic, maxRuntime, maxFrontierSize, spillDirectory, cache,
+                    metrics, json, results);
+            solver.solveAll(paths, threads);
+        } catch (IOException e) {
+            System.err.println("Cannot read the puzzles or the cache: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solves every puzzle of the files and directories, and returns once all of them are solved.
+     *
+     * @param paths   The files of puzzles, and directories searched recursively for such files
+     * @param threads The number of puzzles solved at the same time
+     * @throws IOException if a directory cannot be listed
+     */
+    public void solveAll(List<Path> paths, int threads) throws IOException, InterruptedException {
+        var files = new ArrayList<Path>();
+        for (var path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+
+        if (!json) {
+            output.println(String.join(",", COLUMNS));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (var file : files) {
+                List<Board> boards;
+                try {
+                    if (PuzzleCorpus.isCorpus(file)) {
+                        solveCorpus(file, PuzzleCorpus.open(file), executor);
+                        continue;
+                    }
+                    boards = new NewLineParser().parseAll(file.toFile());
+                } catch (IOException | RuntimeException e) {
+                    writeResult(new String[]{file.toString(), "", algorithmName, heuristicName, "invalid_input",
+                            "", "", "", "", ""});
+                    continue;
+                }
+                for (int index = 0; index < boards.size(); index++) {
+                    var puzzle = boards.size() == 1 ? file.toString() : file + "#" + (index + 1);
+                    var board = boards.get(index);
+                    if (!hasValidCells(board)) {
+                        writeResult(new String[]{puzzle, String.valueOf(board.getSize()), algorithmName,
+                                heuristicName, "invalid_input", "", "", "", "", ""});
+                        continue;
+                    }
+                    executor.execute(() -> solve(puzzle, board.getBoardState()));
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Queues every board of the corpus, each being decoded by the thread solving it.
+     * The boards of a corpus are solvable by construction, so they are not checked like the parsed ones.
+     */
+    private void solveCorpus(Path file, PuzzleCorpus corpus, ExecutorService executor) {
+        for (int index = 0; index < corpus.getCount(); index++) {
+            var puzzle = file + "#" + (index + 1);
+            int boardIndex = index;
+            executor.execute(() -> solve(puzzle, corpus.getBoardState(boardIndex)));
+        }
+    }
+
+    /**
+     * @return The number of steps the spilling frontiers keep in memory, the frontier size budget when there is one
+     */
+    private int memoryLimit() {
+        return maxFrontierSize > 0 ? (int) Math.min(maxFrontierSize, Integer.MAX_VALUE) :
+                SpillingFrontier.DEFAULT_MEMORY_LIMIT;
+    }
+
+    private void solve(String puzzle, TaquinBoardState state) {
+        if (algorithmName.equals("Reduction")) {
+            solveByReduction(puzzle, state);
+            return;
+        }
+        var size = state.getSize();
+        String status;
+        TaquinSolutionHolder solution = null;
+        try {
+            var heuristic = heuristics.computeIfAbsent(size,
+                    boardSize -> SolverFactory.createHeuristic(heuristicName, new TargetBoardState(boardSize)));
+            var algorithm = spillDirectory == null ? SolverFactory.createAlgorithm(algorithmName, heuristic, false) :
+                    SolverFactory.createAlgorithm(algorithmName, heuristic, false, spillDirectory, memoryLimit());
+            if (cache != null) {
+                algorithm = SolverFactory.withCache(algorithm, algorithmName, heuristicName, heuristic, cache);
+            }
+            solution = solveObserved(puzzle, algorithm, state);
+            status = statusOf(solution);
+        } catch (OutOfMemoryError error) {
+            status = "out_of_memory";
+        } catch (RuntimeException e) {
+            status = "error";
+            System.err.println("Error while solving " + puzzle + ": " + e);
+        }
+
+        // an expired search may still hold the best solution it found, as ARA* does, whose moves are written too
+        if (solution == null || solution.solutionSteps() != null && solution.solutionSteps().isEmpty()) {
+            writeResult(new String[]{puzzle, String.valueOf(size), algorithmName, heuristicName, status,
+                    "", "", "", "", ""});
+            return;
+        }
+        var steps = solution.solutionSteps() == null ? List.<SolutionStep>of() : solution.solutionSteps();
+        var moves = SolutionCache.movesOf(steps);
+        writeResult(new String[]{puzzle, String.valueOf(size), algorithmName, heuristicName, status,
+                String.valueOf(steps.size()),
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(solution.elapsedTime())),
+                String.valueOf(solution.maxFrontierSize()),
+                String.valueOf(solution.numberOfExpansions()),
+                moves});
+    }
+
+    /**
+     * Solves the board, with SearchMetrics registered over JMX under the name of the puzzle when asked for
+     */
+    private TaquinSolutionHolder solveObserved(String puzzle, TaquinSolutionAlgorithm algorithm,
+                                               TaquinBoardState state) {
+        if (!metrics) {
+            return algorithm.solve(state.copy(), maxRuntime, maxFrontierSize);
+        }
+        var searchMetrics = new SearchMetrics(puzzle);
+        algorithm.setSearchListener(searchMetrics);
+        try {
+            searchMetrics.register();
+        } catch (JMException e) {
+            System.err.println("Cannot publish the metrics of " + puzzle + ": " + e.getMessage());
+        }
+        try {
+            return algorithm.solve(state.copy(), maxRuntime, maxFrontierSize);
+        } finally {
+            try {
+                searchMetrics.unregister();
+            } catch (JMException e) {
+                System.err.println("Cannot unregister the metrics of " + puzzle + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The reduction solver is meant for boards too large for the SolutionSteps of a solution to fit in memory, so its
+     * moves are written to a temporary file as they are decided, in the spill directory when there is one, and copied
+     * from it into the result line once the status and the length are known. No heuristic is built, and the cache is
+     * not used either.
+     */
+    private void solveByReduction(String puzzle, TaquinBoardState state) {
+        var size = state.getSize();
+        var tiles = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = state.getAtPosition(x, y);
+                tiles[y * size + x] = CellUtilities.cellIsEmpty(cell) ? ReductionSolver.BLANK : cell;
+            }
+        }
+
+        long startTime = System.nanoTime();
+        Path movesFile = null;
+        String status;
+        long length = 0;
+        try {
+            movesFile = spillDirectory == null ? Files.createTempFile("moves", ".txt") :
+                    Files.createTempFile(spillDirectory, "moves", ".txt");
+            var file = movesFile;
+            try (OutputStream moves = new BufferedOutputStream(Files.newOutputStream(file))) {
+                length = new ReductionSolver(new UniformCostHeuristic(), false).solve(size, tiles, direction -> {
+                    try {
+                        moves.write(SolutionCache.letterOf(direction));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot write the moves to " + file, e);
+                    }
+                }, () -> maxRuntime > 0 && System.nanoTime() - startTime > maxRuntime);
+            }
+            status = length == ReductionSolver.STOPPED ? "expired_runtime" : length < 0 ? "unsolvable" :
+                    length == 0 ? "already_solved" : "solved";
+        } catch (OutOfMemoryError error) {
+            status = "out_of_memory";
+        } catch (IOException | RuntimeException e) {
+            status = "error";
+            System.err.println("Error while solving " + puzzle + ": " + e);
+        }
+        long elapsedTime = System.nanoTime() - startTime;
+
+        try {
+            var values = new String[]{puzzle, String.valueOf(size), algorithmName, heuristicName, status,
+                    "", "", "", "", ""};
+            if (!status.equals("solved") && !status.equals("already_solved")) {
+                writeResult(values);
+                return;
+            }
+            values[5] = String.valueOf(length);
+            values[6] = String.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsedTime));
+            values[7] = "0";
+            values[8] = "0";
+            if (length == 0) {
+                writeResult(values);
+            } else {
+                writeResult(values, movesFile);
+            }
+        } finally {
+            deleteMoves(movesFile);
+        }
+    }
+
+    private static void deleteMoves(Path movesFile) {
+        if (movesFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(movesFile);
+        } catch (IOException e) {
+            System.err.println("Cannot delete " + movesFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The algorithms expect each cell id from 0 to size * size - 2 exactly once, plus the empty cell, otherwise
+     * the goal cannot be reached and they would search forever
+     */
+    private static boolean hasValidCells(Board board) {
+        var size = board.getSize();
+        var seen = new boolean[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = board.getBoardState().getAtPosition(x, y);
+                int id = CellUtilities.cellIsEmpty(cell) ? size * size - 1 : cell;
+                if (id < 0 || id >= size * size || seen[id]) {
+                    return false;
+                }
+                seen[id] = true;
+            }
+        }
+        return true;
+    }
+
+    private static String statusOf(TaquinSolutionHolder solution) {
+        if (solution.expiredRuntime()) {
+            return "expired_runtime";
+        }
+        if (solution.expiredFrontierSize()) {
+            return "expired_frontier_size";
+        }
+        if (solution.solutionSteps() == null) {
+            return "already_solved";
+        }
+        if (!solution.solutionSteps().isEmpty()) {
+            return "solved";
+        }
+        return "unsolvable";
+    }
+
+    /**
+     * Writes one line of results, the empty values being left out of the JSON lines
+     */
+    private void writeResult(String[] values) {
+        var line = formatResult(values);
+        synchronized (output) {
+            output.println(line);
+        }
+    }
+
+    /**
+     * Writes one line of results whose moves, the last column, are copied from the file. The letters of the moves
+     * never need quoting or escaping, in CSV as in JSON.
+     */
+    private void writeResult(String[] values, Path movesFile) {
+        var head = formatResult(Arrays.copyOf(values, values.length - 1));
+        String prefix;
+        String suffix;
+        if (json) {
+            prefix = head.substring(0, head.length() - 1) + ",\"" + COLUMNS[COLUMNS.length - 1] + "\":\"";
+            suffix = "\"}";
+        } else {
+            prefix = head + ",";
+            suffix = "";
+        }
+        synchronized (output) {
+            output.print(prefix);
+            try {
+                Files.copy(movesFile, output);
+            } catch (IOException e) {
+                System.err.println("Cannot read the moves from " + movesFile + ": " + e.getMessage());
+            }
+            output.println(suffix);
+        }
+    }
+
+    /**
+     * @return The line of the values, in CSV or JSON, which may leave out the last columns
+     */
+    private String formatResult(String[] values) {
+        if (json) {
+            var fields = new ArrayList<String>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].isEmpty()) {
+                    continue;
+                }
+                var isNumber = values[i].chars().allMatch(Character::isDigit);
+                fields.add("\"" + COLUMNS[i] + "\":" + (isNumber ? values[i] : "\"" + escapeJson(values[i]) + "\""));
+            }
+            return "{" + String.join(",", fields) + "}";
+        }
+        var fields = new ArrayList<String>();
+        for (var value : values) {
+            fields.add(value.contains(",") || value.contains("\"") ?
+                    "\"" + value.replace("\"", "\"\"") + "\"" : value);
+        }
+        return String.join(",", fields);
+    }
+
+    private static String escapeJson(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
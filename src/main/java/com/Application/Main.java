@@ -2,10 +2,15 @@ package com.Application;
 
 /**
  * A separate main class to not have a class that extends a JavaFX class as main (for fat jar purpose)
+ * Without arguments, starts the user interface, otherwise solves the puzzles given as arguments with the BatchSolver.
  */
 public class Main {
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            BatchSolver.main(args);
+            return;
+        }
         TaquinApp.main(args);
     }
 }
@@ -1,20 +1,22 @@
 package com.Application;
 
 import com.Game.Board.Board;
-import com.Game.Board.DefaultBoardState;
+import com.Game.Board.TaquinBoardState;
 import com.Game.Board.TargetBoardState;
 import com.Game.Cell.CellUtilities;
 import com.Game.Solver.*;
-import com.Game.Solver.Heuristic.DisplacedTilesHeuristic;
-import com.Game.Solver.Heuristic.ManhattanDistanceHeuristic;
-import com.Game.Solver.Heuristic.UniformCostHeuristic;
+import com.Game.Solver.Metrics.SearchMetrics;
 import com.Parser.NewLineParser;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
@@ -22,13 +24,18 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.RowConstraints;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import javax.management.JMException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -37,15 +44,32 @@ import java.util.concurrent.TimeUnit;
  * - Board size via the sizeField text input
  * - Chosen heuristic via the heuristic drop-down menu
  * - Whether to print detailed logging information via the log drop-down menu
- * - Chosen algorithm between A* and IDA* via the algorithm drop-down menu
+ * - Chosen algorithm, A*, IDA* or one of their variants, via the algorithm drop-down menu
  * - The number of randomized actions to take from the goal state to produce a shuffled board
  * <p>
  * We use these fields to initialize our board and algorithm when the Solve button is pressed.
+ * The solutions found are kept in memory, so solving a board again, or a board along an optimal solution, is
+ * immediate. The search runs on a background thread, so the window stays responsive: its progress is shown under the
+ * buttons a few times per second, the Cancel button stops it, and its SearchMetrics can be read over JMX.
  */
 public class TaquinController implements Initializable {
 
     private Board board;
 
+    private final SolutionCache solutionCache = new SolutionCache(SolutionCache.DEFAULT_CAPACITY);
+
+    /**
+     * Runs the searches, one at a time. Its thread is a daemon so that closing the window ends the application even
+     * if a search is running
+     */
+    private final ExecutorService solveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "taquin-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CancellationToken runningSolve;
+    private Timeline progressUpdates;
+
     @FXML
     private GridPane boardDisplay;
 
@@ -64,6 +88,16 @@ public class TaquinController implements Initializable {
     private TextField maxRuntimeField;
     @FXML
     private TextField maxFrontierSizeField;
+    @FXML
+    private Button newGameButton;
+    @FXML
+    private Button fileChooserButton;
+    @FXML
+    private Button solveButton;
+    @FXML
+    private Button cancelButton;
+    @FXML
+    private Label progressLabel;
 
     private String chosenHeuristic = "";
     private String chosenAlgorithm = "";
@@ -72,7 +106,7 @@ public class TaquinController implements Initializable {
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        DefaultBoardState boardState = new DefaultBoardState(Integer.parseInt(this.sizeField.getText()));
+        TaquinBoardState boardState = TaquinBoardState.ofSize(Integer.parseInt(this.sizeField.getText()));
         this.board = new Board(boardState, 0);
         this.boardDisplay.resize(100 * this.board.getSize(), 100 * this.board.getSize());
 
@@ -90,12 +124,12 @@ public class TaquinController implements Initializable {
     }
 
     /**
-     * Action behind the "New game" button. If a number of instructions is not mention, create a fully random board not
-     * necessarily solvable.
+     * Action behind the "New game" button. If a number of instructions is not mention, create a fully random board,
+     * drawn among the solvable ones.
      */
     @FXML
     private void onNewGameClick() {
-        DefaultBoardState boardState = new DefaultBoardState(Integer.parseInt(this.sizeField.getText()));
+        TaquinBoardState boardState = TaquinBoardState.ofSize(Integer.parseInt(this.sizeField.getText()));
         String shuffleDepth = this.shuffleDepthField.getText();
         if (shuffleDepth.equals("")) {
             this.board = new Board(boardState);
@@ -106,43 +140,147 @@ public class TaquinController implements Initializable {
     }
 
     /**
-     * Action behind the "Solve" button
+     * Action behind the "Solve" button. Starts the search on the solver thread, the solution is reported back on the
+     * JavaFX thread once it is over
      */
     @FXML
     private void onSolveClick() {
+        if (runningSolve != null) {
+            return;
+        }
         System.out.println("Solving:");
         System.out.println(board.getBoardState().toString());
 
         var targetBoard = new TargetBoardState(Integer.parseInt(this.sizeField.getText()));
         System.out.println(targetBoard);
 
-        var heuristic = switch (chosenHeuristic) {
-            case "Manhattan Distance" -> new ManhattanDistanceHeuristic(targetBoard);
-            case "Displacement" -> new DisplacedTilesHeuristic(targetBoard);
-            default -> new UniformCostHeuristic();
-        };
-
-        TaquinSolutionAlgorithm algorithm = switch (chosenAlgorithm) {
-            case "IDA*" -> new IDAStar(heuristic, withLogs);
-            case "GreedyA*" -> new GreedyAstar(heuristic, withLogs);
-            default -> new AStar(heuristic, withLogs);
-        };
-
         var maxRuntime = this.maxRuntimeField.getText().isEmpty() ? -1 :
                 TimeUnit.MILLISECONDS.toNanos(Long.parseLong(this.maxRuntimeField.getText()));
         var maxFrontier = this.maxFrontierSizeField.getText().isEmpty() ? -1 :
                 Integer.parseInt(this.maxFrontierSizeField.getText());
 
+        var metrics = new SearchMetrics(chosenAlgorithm + " " + chosenHeuristic);
         try {
-            var solution = board.solve(algorithm, maxRuntime, maxFrontier);
-            reportSolution(solution);
-        } catch (OutOfMemoryError error) {
-            System.out.println("---Summary of Algorithm---");
-            System.out.println("Ran out of space on size " + this.sizeField.getText() + " with " + chosenAlgorithm + " and " + chosenHeuristic);
+            metrics.register();
+        } catch (JMException e) {
+            System.out.println("Search metrics unavailable over JMX: " + e.getMessage());
+        }
+        var cancellation = new CancellationToken();
+        startSolving(cancellation, metrics);
+
+        var size = this.sizeField.getText();
+        var heuristicName = chosenHeuristic;
+        var algorithmName = chosenAlgorithm;
+        var logProgress = withLogs;
+        solveExecutor.execute(() -> {
+            TaquinSolutionHolder solution = null;
+            Throwable failure = null;
+            try {
+                // the heuristic is built here as well, generating missing pattern databases may take minutes
+                var heuristic = SolverFactory.createHeuristic(heuristicName, targetBoard, cancellation::isCancelled);
+                var algorithm = SolverFactory.withCache(
+                        SolverFactory.createAlgorithm(algorithmName, heuristic, logProgress),
+                        algorithmName, heuristicName, heuristic, solutionCache);
+                algorithm.setSearchListener(metrics);
+                algorithm.setCancellationToken(cancellation);
+                solution = board.solve(algorithm, maxRuntime, maxFrontier);
+            } catch (CancellationException e) {
+                System.out.println(e.getMessage());
+            } catch (OutOfMemoryError error) {
+                System.out.println("---Summary of Algorithm---");
+                System.out.println("Ran out of space on size " + size + " with " + algorithmName + " and " + heuristicName);
+                failure = error;
+            } catch (RuntimeException | Error e) { // the controls must be unlocked whatever stopped the search
+                System.out.println("Error while solving: " + e);
+                failure = e;
+            } finally {
+                metrics.stop();
+                try {
+                    metrics.unregister();
+                } catch (JMException e) {
+                    System.out.println("Cannot unregister the search metrics: " + e.getMessage());
+                }
+                var result = solution;
+                var error = failure;
+                Platform.runLater(() -> {
+                    stopSolving(metrics);
+                    // an anytime search returns the best solution it found when cancelled
+                    boolean solved = result != null && result.solutionSteps() != null
+                            && !result.solutionSteps().isEmpty();
+                    if (error != null) {
+                        reportFailure(error);
+                    } else if (cancellation.isCancelled() && !solved) {
+                        System.out.println("Solve cancelled");
+                        progressLabel.setText("Cancelled. " + progressLabel.getText());
+                    } else if (result != null) {
+                        reportSolution(result, metrics);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Action behind the "Cancel" button, the search stops at its next check of its runtime
+     */
+    @FXML
+    private void onCancelClick() {
+        if (runningSolve != null) {
+            runningSolve.cancel();
+            cancelButton.setDisable(true);
         }
     }
 
-    private void reportSolution(TaquinSolutionHolder solution) {
+    /**
+     * Locks the controls which would change the board while it is solved, and samples the metrics of the search
+     * every 250 milliseconds rather than on every event, so a fast search does not flood the JavaFX thread
+     */
+    private void startSolving(CancellationToken cancellation, SearchMetrics metrics) {
+        runningSolve = cancellation;
+        setSolving(true);
+        progressLabel.setText("Solving...");
+        progressUpdates = new Timeline(new KeyFrame(Duration.millis(250), event -> showProgress(metrics)));
+        progressUpdates.setCycleCount(Timeline.INDEFINITE);
+        progressUpdates.play();
+    }
+
+    private void stopSolving(SearchMetrics metrics) {
+        progressUpdates.stop();
+        progressUpdates = null;
+        runningSolve = null;
+        setSolving(false);
+        showProgress(metrics);
+    }
+
+    private void setSolving(boolean solving) {
+        boardDisplay.setDisable(solving);
+        sizeField.setDisable(solving);
+        heuristicCombo.setDisable(solving);
+        algorithmCombo.setDisable(solving);
+        newGameButton.setDisable(solving);
+        fileChooserButton.setDisable(solving);
+        solveButton.setDisable(solving);
+        cancelButton.setDisable(!solving);
+    }
+
+    private void showProgress(SearchMetrics metrics) {
+        var progress = String.format("%,d nodes/s, frontier %,d, f-bound %d",
+                Math.round(metrics.getNodesPerSecond()), metrics.getFrontierSize(), metrics.getLayer());
+        if (metrics.getSolutionLength() >= 0) {
+            progress += String.format("%nbest solution %d moves, at most %.2f times the optimal",
+                    metrics.getSolutionLength(), metrics.getSuboptimalityBound());
+        }
+        progressLabel.setText(progress);
+    }
+
+    private void reportFailure(Throwable error) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setContentText(error instanceof OutOfMemoryError ? "Algorithm ran out of memory" :
+                "Algorithm failed: " + error);
+        alert.show();
+    }
+
+    private void reportSolution(TaquinSolutionHolder solution, SearchMetrics metrics) {
         if (solution.solutionSteps() == null) {
             System.out.println("Already solved");
             return;
@@ -183,6 +321,8 @@ public class TaquinController implements Initializable {
         System.out.println("Elapsed runtime: " + TimeUnit.NANOSECONDS.toMillis(solution.elapsedTime()));
         System.out.println("Max Frontier Size: " + solution.maxFrontierSize());
         System.out.println("Number of Expansions: " + solution.numberOfExpansions());
+        System.out.println("Generated nodes: " + metrics.getGenerations() + ", duplicates: " + metrics.getDuplicates());
+        System.out.println("Nodes per second: " + Math.round(metrics.getNodesPerSecond()));
         board.setBoardState(solution.solutionSteps().get(solution.solutionSteps().size() - 1).state());
         updateBoard();
         writeExperiment(solution);
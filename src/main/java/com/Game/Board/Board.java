@@ -1,12 +1,11 @@
 package com.Game.Board;
 
-import com.Game.Cell.CellUtilities;
 import com.Game.Cell.Position;
 import com.Game.Solver.TaquinSolutionAlgorithm;
 import com.Game.Solver.TaquinSolutionHolder;
 
 import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * This class represents the user interface of the board. When the user interface takes actions which modify
@@ -25,10 +24,18 @@ public class Board {
 
     public Board(TaquinBoardState boardState, int shuffleDepth) {
         this.boardState = boardState;
-        this.shuffleInstruction(shuffleDepth);
+        this.shuffleInstruction(shuffleDepth, new SplittableRandom());
 
     }
 
+    /**
+     * Same as the shuffle by depth, but always generating the same board for the same seed, for experiments
+     */
+    public Board(TaquinBoardState boardState, int shuffleDepth, long seed) {
+        this.boardState = boardState;
+        this.shuffleInstruction(shuffleDepth, new SplittableRandom(seed));
+    }
+
     public Board(TaquinBoardState boardState, ArrayList<ArrayList<Short>> cellContent) {
         this.boardState = boardState;
 
@@ -53,31 +60,10 @@ public class Board {
     }
 
     /**
-     * Fully randomize the board, can lead to unsolvable configuration
+     * Fully randomize the board, among the solvable configurations
      */
     private void shuffle() {
-        int nbOfCells = getSize() * getSize() - 1;
-
-        ArrayList<Short> availableIds = new ArrayList<>();
-        for (short i = 0; i < nbOfCells; i++) {
-            availableIds.add(i);
-        }
-
-        Random random = new Random();
-
-        for (int i = 0; i < getSize(); i++) {
-            for (int j = 0; j < getSize(); j++) {
-                if (i == getSize() - 1 && j == getSize() - 1) {
-                    // Skip the last position
-                    break;
-                }
-                int selected = random.nextInt(availableIds.size());
-                this.boardState.addCell(new Position(j, i), availableIds.get(selected)); // add cell with number
-                availableIds.remove(selected);
-            }
-        }
-
-        this.boardState.addCell(new Position(getSize() - 1, getSize() - 1), TaquinBoardState.EMPTY_ID); // add empty cell
+        boardState.setCells(new ScrambleGenerator(getSize()).uniform(new SplittableRandom()));
     }
 
     /**
@@ -85,43 +71,10 @@ public class Board {
      * up and directly after down).
      *
      * @param numberOfMoves the number of actions to perform
+     * @param random        the source of the moves
      */
-    private void shuffleInstruction(int numberOfMoves) {
-
-        // Creating the cells
-        short count = 0;
-        for (int i = 0; i < getSize(); i++) {
-            for (int j = 0; j < getSize(); j++) {
-                if (i == getSize() - 1 && j == getSize() - 1) {
-                    // Skip the last position
-                    break;
-                }
-                this.boardState.addCell(new Position(j, i), count++); // add cell with number
-            }
-        }
-
-        this.boardState.addCell(new Position(getSize() - 1, getSize() - 1), TaquinBoardState.EMPTY_ID); // add empty cell
-
-        // Shuffling
-        Random random = new Random();
-        int lastDirectionChoice = -1; // direction of the move of the empty tile
-        for (int i = 0; i < numberOfMoves; i++) {
-            //System.out.println("Shuffling step : " + i);
-            TaquinBoardDirection choice = TaquinBoardDirection.values()[random.nextInt(4)];
-            if (lastDirectionChoice != -1 && choice == TaquinBoardDirection.values()[lastDirectionChoice].mapFromOpposite()) { // direction
-                choice = TaquinBoardDirection.values()[(choice.ordinal() + 1) % 4];
-            }
-            Position empty = boardState.getEmptyPosition();
-
-            if (!boardState.targetHasNeighbor(choice, empty)) { // illegal move
-                i--;
-                continue;
-            }
-
-            boardState.processAction(TaquinBoardAction.mapFromDirection(choice), empty);
-            lastDirectionChoice = choice.ordinal();
-        }
-
+    private void shuffleInstruction(int numberOfMoves, SplittableRandom random) {
+        boardState.setCells(new ScrambleGenerator(getSize()).walk(numberOfMoves, random));
     }
 
     @Override
@@ -130,24 +83,24 @@ public class Board {
     }
 
     /**
-     * Takes a position of a cell and finds a neighbor which is the empty cell. If such a neighbor is found, the
+     * Takes a position of a cell and checks whether the empty cell is one of its neighbors. If it is, the
      * position of the two cells are switched.
+     * Rather than looking around the cell, we look up the cells the empty cell can reach in the move table.
      *
      * @param x
      * @param y
      */
     public void move(int x, int y) {
-        final Position currentCell = new Position(x, y);
-        for (TaquinBoardDirection direction : TaquinBoardDirection.values()) {
-            try {
-                var neighbor = this.boardState.getNeighbor(direction, currentCell);
-                if (CellUtilities.cellIsEmpty(neighbor)) {
-                    boardState.processAction(TaquinBoardAction.mapFromDirection(direction), currentCell);
-                    return;
-                }
-            } catch (IndexOutOfBoundsException ignored) {
-                // We will be checking all cardinal directions for a cell, so it is normal that some of those
-                // directions will throw exceptions
+        if (x < 0 || y < 0 || x >= getSize() || y >= getSize()) {
+            return;
+        }
+        int index = y * getSize() + x;
+        int emptyIndex = boardState.getEmptyIndex();
+        var moveTable = boardState.getMoveTable();
+        for (TaquinBoardDirection direction : moveTable.legalMoves(emptyIndex)) {
+            if (moveTable.neighborIndex(emptyIndex, direction) == index) {
+                boardState.moveEmpty(direction);
+                return;
             }
         }
     }
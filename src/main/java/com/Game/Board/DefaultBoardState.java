@@ -12,27 +12,38 @@ import java.util.Arrays;
  * of a standard two-dimensional graph, ignoring the negative sign.
  * The first array represents the rows of the grid, and the second array the columns.
  * We use the naming x and y for the indices into these arrays.
+ * The index of the empty cell is kept up to date by the transitions, so that locating it is not a scan of the grid.
  */
 public class DefaultBoardState extends TaquinBoardState {
 
+    private static final int NO_EMPTY_INDEX = -1;
+
     private final int size;
 
     private final short[][] boardImplementation;
 
+    private final MoveTable moveTable;
+
+    /**
+     * Index of the empty cell, NO_EMPTY_INDEX while the board has none
+     */
+    private int emptyIndex;
+
     public DefaultBoardState(int size) {
         this.size = size;
         boardImplementation = new short[size][size];
+        moveTable = MoveTable.ofSize(size);
+        emptyIndex = NO_EMPTY_INDEX;
     }
 
     public DefaultBoardState(DefaultBoardState boardState) {
         this.size = boardState.size;
-        boardImplementation = new short[size][size];
+        boardImplementation = new short[size][];
         for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                var toCopy = boardState.getAtPosition(j, i);
-                boardImplementation[i][j] = toCopy;
-            }
+            boardImplementation[i] = boardState.boardImplementation[i].clone();
         }
+        moveTable = boardState.moveTable;
+        emptyIndex = boardState.emptyIndex;
     }
 
     @Override
@@ -43,6 +54,25 @@ public class DefaultBoardState extends TaquinBoardState {
     @Override
     public void addCell(Position position, short value) {
         boardImplementation[position.getY()][position.getX()] = value;
+        int index = position.getY() * size + position.getX();
+        if (CellUtilities.cellIsEmpty(value)) {
+            emptyIndex = index;
+        } else if (emptyIndex == index) {
+            emptyIndex = NO_EMPTY_INDEX;
+        }
+    }
+
+    @Override
+    public void setCells(short[] cells) {
+        emptyIndex = NO_EMPTY_INDEX;
+        for (int y = 0; y < size; y++) {
+            System.arraycopy(cells, y * size, boardImplementation[y], 0, size);
+        }
+        for (int index = 0; index < size * size; index++) {
+            if (CellUtilities.cellIsEmpty(cells[index])) {
+                emptyIndex = index;
+            }
+        }
     }
 
     @Override
@@ -85,6 +115,25 @@ public class DefaultBoardState extends TaquinBoardState {
             }
             default -> throw new IllegalStateException("Unexpected value: " + action);
         }
+
+        int targetIndex = target.getY() * size + target.getX();
+        if (CellUtilities.cellIsEmpty(targetValue)) {
+            emptyIndex = moveTable.neighborIndex(targetIndex, action.ordinal()); // the actions follow the directions
+        } else if (CellUtilities.cellIsEmpty(boardImplementation[target.getY()][target.getX()])) {
+            emptyIndex = targetIndex;
+        }
+    }
+
+    @Override
+    public void moveEmpty(TaquinBoardDirection direction) {
+        int from = getEmptyIndex();
+        int to = moveTable.neighborIndex(from, direction);
+        if (to == MoveTable.NO_NEIGHBOR) {
+            throw new IllegalArgumentException("The empty cell cannot move " + direction);
+        }
+        boardImplementation[from / size][from % size] = boardImplementation[to / size][to % size];
+        boardImplementation[to / size][to % size] = EMPTY_ID;
+        emptyIndex = to;
     }
 
     @Override
@@ -100,16 +149,6 @@ public class DefaultBoardState extends TaquinBoardState {
         return neighbor;
     }
 
-    @Override
-    public boolean targetHasNeighbor(TaquinBoardDirection direction, Position target) {
-        try {
-            getNeighbor(direction, target);
-            return true;
-        } catch (IndexOutOfBoundsException e) {
-            return false;
-        }
-    }
-
     @Override
     public TaquinBoardState copy() {
         return new DefaultBoardState(this);
@@ -117,15 +156,21 @@ public class DefaultBoardState extends TaquinBoardState {
 
     @Override
     public Position getEmptyPosition() {
-        for (int y = 0; y < getSize(); y++) {
-            for (int x = 0; x < getSize(); x++) {
-                if (CellUtilities.cellIsEmpty(getAtPosition(x, y))) {
-                    return new Position(x, y);
-                }
-            }
+        int emptyIndex = getEmptyIndex();
+        return new Position(emptyIndex % size, emptyIndex / size);
+    }
+
+    @Override
+    public int getEmptyIndex() {
+        if (emptyIndex == NO_EMPTY_INDEX) {
+            throw new IllegalStateException("Board has no empty cell");
         }
+        return emptyIndex;
+    }
 
-        throw new IllegalStateException("Board has no empty cell");
+    @Override
+    public MoveTable getMoveTable() {
+        return moveTable;
     }
 
     @Override
@@ -143,7 +188,7 @@ public class DefaultBoardState extends TaquinBoardState {
 
     /**
      * Tests for the goal state by checking that all values are sorted in increasing order.
-     * The high prime number value of the EMPTY_ID is useful here as we do not need a special check.
+     * The EMPTY_ID being above every other id is useful here as we do not need a special check.
      *
      * @return true if the current state represents the goal, false otherwise
      */
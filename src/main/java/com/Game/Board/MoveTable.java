@@ -0,0 +1,113 @@
+package com.Game.Board;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The moves of the empty cell on a board of a given size, precomputed for every index of the board, the index of
+ * the cell at (x, y) being y * size + x.
+ * Generating the successors of a state is then a lookup of the legal directions of its empty cell, with no bound
+ * checks, exceptions or Position allocations. The tables only depend on the size, so one instance per size is
+ * shared by all the boards of that size, and the arrays it returns must not be modified.
+ */
+public final class MoveTable {
+
+    /**
+     * Neighbor index of the moves leading out of the board
+     */
+    public static final int NO_NEIGHBOR = -1;
+
+    private static final TaquinBoardDirection[] DIRECTIONS = TaquinBoardDirection.values();
+
+    private static final Map<Integer, MoveTable> TABLES = new ConcurrentHashMap<>();
+
+    private final int size;
+
+    /**
+     * For every index, the directions in which the empty cell can move from it
+     */
+    private final TaquinBoardDirection[][] legalMoves;
+
+    /**
+     * Same as legalMoves, with the ordinals of the directions
+     */
+    private final int[][] legalDirections;
+
+    /**
+     * The index reached from index in the direction of ordinal d is at index * 4 + d, NO_NEIGHBOR if there is none
+     */
+    private final int[] neighbors;
+
+    private MoveTable(int size) {
+        this.size = size;
+        legalMoves = new TaquinBoardDirection[size * size][];
+        legalDirections = new int[size * size][];
+        neighbors = new int[size * size * DIRECTIONS.length];
+        for (int index = 0; index < size * size; index++) {
+            int x = index % size;
+            int y = index / size;
+            int count = 0;
+            var moves = new TaquinBoardDirection[DIRECTIONS.length];
+            for (var direction : DIRECTIONS) {
+                int neighbor = switch (direction) {
+                    case UP -> y > 0 ? index - size : NO_NEIGHBOR;
+                    case RIGHT -> x < size - 1 ? index + 1 : NO_NEIGHBOR;
+                    case DOWN -> y < size - 1 ? index + size : NO_NEIGHBOR;
+                    case LEFT -> x > 0 ? index - 1 : NO_NEIGHBOR;
+                };
+                neighbors[index * DIRECTIONS.length + direction.ordinal()] = neighbor;
+                if (neighbor != NO_NEIGHBOR) {
+                    moves[count++] = direction;
+                }
+            }
+            legalMoves[index] = Arrays.copyOf(moves, count);
+            legalDirections[index] = new int[count];
+            for (int move = 0; move < count; move++) {
+                legalDirections[index][move] = legalMoves[index][move].ordinal();
+            }
+        }
+    }
+
+    /**
+     * @return The table of the boards of the given size
+     */
+    public static MoveTable ofSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("A board cannot have a size of " + size);
+        }
+        return TABLES.computeIfAbsent(size, MoveTable::new);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The directions in which the empty cell at the index can move, in the order of TaquinBoardDirection
+     */
+    public TaquinBoardDirection[] legalMoves(int index) {
+        return legalMoves[index];
+    }
+
+    /**
+     * @return The ordinals of the directions of legalMoves
+     */
+    public int[] legalDirections(int index) {
+        return legalDirections[index];
+    }
+
+    /**
+     * @return The index reached when moving from the index in the direction, NO_NEIGHBOR if it leaves the board
+     */
+    public int neighborIndex(int index, TaquinBoardDirection direction) {
+        return neighbors[index * DIRECTIONS.length + direction.ordinal()];
+    }
+
+    /**
+     * Same as neighborIndex, with the ordinal of the direction
+     */
+    public int neighborIndex(int index, int direction) {
+        return neighbors[index * DIRECTIONS.length + direction];
+    }
+}
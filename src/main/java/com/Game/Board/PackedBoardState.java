@@ -0,0 +1,247 @@
+package com.Game.Board;
+
+import com.Game.Cell.CellUtilities;
+import com.Game.Cell.Position;
+
+/**
+ * Compact implementation of TaquinBoardState for boards of size up to 4x4.
+ * The whole grid is packed into a single long, each cell using 4 bits: the cell at index y * size + x occupies
+ * the bits [4 * index, 4 * index + 4).
+ * A cell of id n is stored as n + 1, leaving the value 0 for the empty cell, whose index is also kept in a field.
+ * Copying, transitions, equality and hashing are thus reduced to a handful of shifts and masks, and a state
+ * only weighs a few bytes, which matters when the frontier holds millions of them.
+ */
+public class PackedBoardState extends TaquinBoardState {
+
+    public static final int MAX_SIZE = 4;
+
+    private static final int BITS_PER_CELL = 4;
+    private static final long CELL_MASK = 0xFL;
+
+    /**
+     * Packed representation of the goal state for each size, indexed by the size
+     */
+    private static final long[] GOAL_CELLS = new long[MAX_SIZE + 1];
+
+    /**
+     * Move table of each size, indexed by the size, so that packed states need no field to reach it
+     */
+    private static final MoveTable[] MOVE_TABLES = new MoveTable[MAX_SIZE + 1];
+
+    static {
+        for (int size = 1; size <= MAX_SIZE; size++) {
+            MOVE_TABLES[size] = MoveTable.ofSize(size);
+            long goal = 0;
+            for (int index = 0; index < size * size - 1; index++) {
+                goal |= (long) (index + 1) << (BITS_PER_CELL * index);
+            }
+            GOAL_CELLS[size] = goal;
+        }
+    }
+
+    private final int size;
+
+    private long cells;
+
+    private int emptyIndex;
+
+    public PackedBoardState(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("A packed board cannot have a size of " + size);
+        }
+        this.size = size;
+        this.cells = 0;
+        this.emptyIndex = size * size - 1;
+    }
+
+    public PackedBoardState(PackedBoardState boardState) {
+        this.size = boardState.size;
+        this.cells = boardState.cells;
+        this.emptyIndex = boardState.emptyIndex;
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public long encode() {
+        return cells;
+    }
+
+    @Override
+    public void addCell(Position position, short value) {
+        int index = indexOf(position.getX(), position.getY());
+        if (CellUtilities.cellIsEmpty(value)) {
+            setCell(index, 0);
+            emptyIndex = index;
+        } else if (value < 0 || value >= CELL_MASK) {
+            throw new IllegalArgumentException("Cell id " + value + " does not fit in a packed board");
+        } else {
+            setCell(index, value + 1);
+        }
+    }
+
+    @Override
+    public void setCells(short[] cells) {
+        long packed = 0;
+        for (int index = size * size - 1; index >= 0; index--) {
+            var cell = cells[index];
+            if (CellUtilities.cellIsEmpty(cell)) {
+                emptyIndex = index;
+            } else if (cell < 0 || cell >= CELL_MASK) {
+                throw new IllegalArgumentException("Cell id " + cell + " does not fit in a packed board");
+            }
+            packed = packed << BITS_PER_CELL | (CellUtilities.cellIsEmpty(cell) ? 0 : cell + 1);
+        }
+        this.cells = packed;
+    }
+
+    @Override
+    public short getAtPosition(int x, int y) {
+        int packed = getCell(indexOf(x, y));
+        return packed == 0 ? EMPTY_ID : (short) (packed - 1);
+    }
+
+    /**
+     * Swaps the target cell with its neighbor in the direction of the action.
+     * Like the default implementation, an action leading out of the board throws an IndexOutOfBoundsException.
+     *
+     * @param action The action we want to perform in our state transition
+     * @param target The target position of that action
+     */
+    @Override
+    public void processAction(TaquinBoardAction action, Position target) {
+        int targetIndex = indexOf(target.getX(), target.getY());
+        int neighborIndex = switch (action) {
+            case SWAP_UP -> indexOf(target.getX(), target.getY() - 1);
+            case SWAP_RIGHT -> indexOf(target.getX() + 1, target.getY());
+            case SWAP_DOWN -> indexOf(target.getX(), target.getY() + 1);
+            case SWAP_LEFT -> indexOf(target.getX() - 1, target.getY());
+        };
+        swap(targetIndex, neighborIndex);
+
+        if (emptyIndex == targetIndex) {
+            emptyIndex = neighborIndex;
+        } else if (emptyIndex == neighborIndex) {
+            emptyIndex = targetIndex;
+        }
+    }
+
+    @Override
+    public void moveEmpty(TaquinBoardDirection direction) {
+        int neighborIndex = MOVE_TABLES[size].neighborIndex(emptyIndex, direction);
+        if (neighborIndex == MoveTable.NO_NEIGHBOR) {
+            throw new IllegalArgumentException("The empty cell cannot move " + direction);
+        }
+        swap(emptyIndex, neighborIndex);
+        emptyIndex = neighborIndex;
+    }
+
+    @Override
+    public short getNeighbor(TaquinBoardDirection direction, Position target) {
+        return switch (direction) {
+            case UP -> getAtPosition(target.getX(), target.getY() - 1);
+            case RIGHT -> getAtPosition(target.getX() + 1, target.getY());
+            case DOWN -> getAtPosition(target.getX(), target.getY() + 1);
+            case LEFT -> getAtPosition(target.getX() - 1, target.getY());
+        };
+    }
+
+    @Override
+    public TaquinBoardState copy() {
+        return new PackedBoardState(this);
+    }
+
+    @Override
+    public Position getEmptyPosition() {
+        return new Position(emptyIndex % size, emptyIndex / size);
+    }
+
+    @Override
+    public int getEmptyIndex() {
+        return emptyIndex;
+    }
+
+    @Override
+    public MoveTable getMoveTable() {
+        return MOVE_TABLES[size];
+    }
+
+    @Override
+    public Position getPositionOfCell(short id) {
+        if (CellUtilities.cellIsEmpty(id)) {
+            return getEmptyPosition();
+        }
+        for (int index = 0; index < size * size; index++) {
+            if (getCell(index) == id + 1) {
+                return new Position(index % size, index / size);
+            }
+        }
+
+        throw new IllegalStateException("Board is missing cell of id " + id);
+    }
+
+    @Override
+    public boolean isGoalState() {
+        return cells == GOAL_CELLS[size];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PackedBoardState that = (PackedBoardState) o;
+        return size == that.size && cells == that.cells;
+    }
+
+    /**
+     * The packed cells are mixed with the golden ratio so that boards differing by a few cells spread across
+     * the buckets of hash based collections.
+     */
+    @Override
+    public int hashCode() {
+        long mixed = cells * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < getSize(); i++) {
+            for (int j = 0; j < getSize(); j++) {
+                stringBuilder.append(CellUtilities.getStrValueOfCell(getAtPosition(j, i))).append(", ");
+            }
+            stringBuilder.append('\n');
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * @return The index of the cell at the given coordinates
+     * @throws IndexOutOfBoundsException if the coordinates are outside the board
+     */
+    private int indexOf(int x, int y) {
+        if (x < 0 || y < 0 || x >= size || y >= size) {
+            throw new IndexOutOfBoundsException("Position (" + x + ", " + y + ") is outside of the board");
+        }
+        return y * size + x;
+    }
+
+    /**
+     * Swapping two cells is xoring both of them with the xor of their values
+     */
+    private void swap(int index, int otherIndex) {
+        long difference = (cells >>> (BITS_PER_CELL * index) ^ cells >>> (BITS_PER_CELL * otherIndex)) & CELL_MASK;
+        cells ^= difference << (BITS_PER_CELL * index) | difference << (BITS_PER_CELL * otherIndex);
+    }
+
+    private int getCell(int index) {
+        return (int) (cells >>> (BITS_PER_CELL * index) & CELL_MASK);
+    }
+
+    private void setCell(int index, long value) {
+        cells = cells & ~(CELL_MASK << (BITS_PER_CELL * index)) | value << (BITS_PER_CELL * index);
+    }
+}
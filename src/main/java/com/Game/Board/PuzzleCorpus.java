@@ -0,0 +1,196 @@
+package com.Game.Board;
+
+import com.Game.Cell.CellUtilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A file of boards of the same size, as written by ScrambleGenerator, read by mapping the file in memory so that any
+ * board can be decoded without reading the ones before it.
+ * <p>
+ * The file starts with a header made of the magic number, the version of the format, the size of the boards, the
+ * number of moves of the random walks which generated them (UNIFORM for uniform boards), the seed of the generator
+ * and the number of boards, all big-endian. The boards follow, each packed in entryLength(size) bytes: a cell of id
+ * n is stored as n + 1 and the empty cell as 0, each in bitsPerCell(size) bits, the cell at index i of the board
+ * occupying the bits [i * bitsPerCell, (i + 1) * bitsPerCell) counting from the lowest bit of the first byte.
+ * A 4x4 board thus takes 8 bytes, laid out as TaquinBoardState.encode, and a 5x5 board 16 bytes.
+ * <p>
+ * A corpus is mapped at once, so its file is limited to MAX_LENGTH bytes, about 268 million 4x4 boards.
+ */
+public final class PuzzleCorpus {
+
+    public static final int MAGIC = 0x54514350; // "TQCP"
+
+    public static final byte VERSION = 1;
+
+    /**
+     * Number of moves recorded for the corpora of uniformly random boards
+     */
+    public static final int UNIFORM = -1;
+
+    /**
+     * The largest file a corpus can be mapped from
+     */
+    public static final long MAX_LENGTH = Integer.MAX_VALUE;
+
+    static final int HEADER_LENGTH = Integer.BYTES + Byte.BYTES + Short.BYTES + Integer.BYTES + Long.BYTES
+            + Integer.BYTES;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int moves;
+    private final long seed;
+    private final int count;
+    private final int bitsPerCell;
+    private final int entryLength;
+
+    private PuzzleCorpus(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a corpus of boards");
+        }
+        if (buffer.get(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported corpus version " + buffer.get(Integer.BYTES));
+        }
+        this.size = buffer.getShort(Integer.BYTES + Byte.BYTES);
+        this.moves = buffer.getInt(Integer.BYTES + Byte.BYTES + Short.BYTES);
+        this.seed = buffer.getLong(Integer.BYTES * 2 + Byte.BYTES + Short.BYTES);
+        this.count = buffer.getInt(Integer.BYTES * 2 + Byte.BYTES + Short.BYTES + Long.BYTES);
+        this.bitsPerCell = bitsPerCell(size);
+        this.entryLength = entryLength(size);
+        if (size < 1 || count < 0 || buffer.limit() != fileLength(size, count)) {
+            throw new IllegalArgumentException("Truncated or corrupted corpus of " + count + " boards");
+        }
+    }
+
+    /**
+     * @return The corpus of the file, which stays mapped in memory as long as the corpus is reachable
+     * @throws IllegalArgumentException if the file is not a valid corpus
+     */
+    public static PuzzleCorpus open(Path file) throws IOException {
+        try (var channel = FileChannel.open(file)) {
+            if (channel.size() > MAX_LENGTH) {
+                throw new IllegalArgumentException("A corpus cannot be larger than " + MAX_LENGTH + " bytes");
+            }
+            return new PuzzleCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return true if the file starts with the magic number of the corpora
+     */
+    public static boolean isCorpus(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            var magic = input.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return The number of moves of the random walks, UNIFORM for uniformly random boards
+     */
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The cells of the board at the index, row by row
+     */
+    public short[] getCells(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board " + index + " of a corpus of " + count);
+        }
+        var cells = new short[size * size];
+        int offset = Math.toIntExact(HEADER_LENGTH + (long) index * entryLength);
+        long bits = 0;
+        int available = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            while (available < bitsPerCell) {
+                bits |= (long) (buffer.get(offset++) & 0xFF) << available;
+                available += Byte.SIZE;
+            }
+            int packed = (int) (bits & (1L << bitsPerCell) - 1);
+            cells[cell] = packed == 0 ? TaquinBoardState.EMPTY_ID : (short) (packed - 1);
+            bits >>>= bitsPerCell;
+            available -= bitsPerCell;
+        }
+        return cells;
+    }
+
+    /**
+     * @return The board at the index
+     */
+    public TaquinBoardState getBoardState(int index) {
+        return TaquinBoardState.ofCells(size, getCells(index));
+    }
+
+    /**
+     * @return The number of bits of each cell of the boards of the given size
+     */
+    static int bitsPerCell(int size) {
+        return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(size * size - 1));
+    }
+
+    /**
+     * @return The number of bytes of each board of the given size
+     */
+    static int entryLength(int size) {
+        return (size * size * bitsPerCell(size) + Byte.SIZE - 1) / Byte.SIZE;
+    }
+
+    /**
+     * @return The length of the file of a corpus of count boards of the given size
+     */
+    static long fileLength(int size, int count) {
+        return HEADER_LENGTH + (long) count * entryLength(size);
+    }
+
+    static byte[] header(int size, int moves, long seed, int count) {
+        return ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .putShort((short) size)
+                .putInt(moves)
+                .putLong(seed)
+                .putInt(count)
+                .array();
+    }
+
+    /**
+     * Writes the cells in the entryLength bytes of the destination starting at the offset
+     */
+    static void pack(short[] cells, byte[] destination, int offset) {
+        int bitsPerCell = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(cells.length - 1));
+        long bits = 0;
+        int pending = 0;
+        for (var cell : cells) {
+            bits |= (long) (CellUtilities.cellIsEmpty(cell) ? 0 : cell + 1) << pending;
+            pending += bitsPerCell;
+            while (pending >= Byte.SIZE) {
+                destination[offset++] = (byte) bits;
+                bits >>>= Byte.SIZE;
+                pending -= Byte.SIZE;
+            }
+        }
+        if (pending > 0) {
+            destination[offset] = (byte) bits;
+        }
+    }
+}
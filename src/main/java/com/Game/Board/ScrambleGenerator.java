@@ -0,0 +1,224 @@
+package com.Game.Board;
+
+import com.Game.Cell.CellUtilities;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Generates solvable boards of a given size, and writes corpora of them in the format read by PuzzleCorpus.
+ * A board is either drawn uniformly among the solvable boards of its size, or reached from the goal by a random walk
+ * of the empty cell which never undoes its previous move. Such a walk of n moves gives a board at most n moves away
+ * from the goal, with the parity of n, but cycles of the walk may leave it closer.
+ * <p>
+ * All the randomness comes from the SplittableRandom given to each call, so the same stream always gives the same
+ * boards. A corpus is generated in chunks of CHUNK_LENGTH boards, each drawn from its own stream split in order from
+ * the seed of the corpus, which makes the corpus only depend on its seed and not on the number of threads.
+ * <p>
+ * Usage: ScrambleGenerator outputFile size count [--moves n] [--seed s] [--threads n], the boards being uniformly
+ * random unless a number of moves is given.
+ */
+public class ScrambleGenerator {
+
+    /**
+     * The number of boards drawn from the same stream
+     */
+    static final int CHUNK_LENGTH = 1 << 12;
+
+    /**
+     * The length in bytes of the boards generated in parallel before being written, unless every thread needs a
+     * larger chunk of its own
+     */
+    private static final int BATCH_LENGTH = 1 << 24;
+
+    private final int size;
+    private final MoveTable moveTable;
+    private final short[] goalCells;
+
+    public ScrambleGenerator(int size) {
+        this.size = size;
+        this.moveTable = MoveTable.ofSize(size);
+        this.goalCells = new short[size * size];
+        for (int index = 0; index < size * size - 1; index++) {
+            goalCells[index] = (short) index;
+        }
+        goalCells[size * size - 1] = TaquinBoardState.EMPTY_ID;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var arguments = new ArrayList<String>();
+        int moves = PuzzleCorpus.UNIFORM;
+        long seed = new SplittableRandom().nextLong();
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--moves" -> moves = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> arguments.add(args[i]);
+            }
+        }
+        if (arguments.size() != 3) {
+            System.err.println("Usage: ScrambleGenerator outputFile size count [--moves n] [--seed s] [--threads n]");
+            System.exit(2);
+            return;
+        }
+        var file = Path.of(arguments.get(0));
+        int size = Integer.parseInt(arguments.get(1));
+        int count = Integer.parseInt(arguments.get(2));
+
+        var startTime = System.nanoTime();
+        new ScrambleGenerator(size).writeCorpus(file, count, moves, seed, threads);
+        System.out.println("Wrote " + count + " boards of size " + size + " with the seed " + seed + " in "
+                + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Draws a permutation of the cells, and swaps two cells other than the empty cell if it is not solvable.
+     * For a given position of the empty cell, that swap maps the unsolvable boards one to one onto the solvable ones,
+     * so every solvable board is drawn with the same probability.
+     *
+     * @return The cells of the board, row by row
+     */
+    public short[] uniform(SplittableRandom random) {
+        var cells = goalCells.clone();
+        for (int index = cells.length - 1; index > 0; index--) {
+            int other = random.nextInt(index + 1);
+            var cell = cells[index];
+            cells[index] = cells[other];
+            cells[other] = cell;
+        }
+        if (!isSolvable(size, cells)) {
+            int first = CellUtilities.cellIsEmpty(cells[0]) ? 1 : 0;
+            int second = CellUtilities.cellIsEmpty(cells[first + 1]) ? first + 2 : first + 1;
+            var cell = cells[first];
+            cells[first] = cells[second];
+            cells[second] = cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Moves the empty cell of the goal in random directions, never undoing the previous move.
+     * The next move is drawn among the legal directions but the last one, and replaced by the last one if it is the
+     * move undoing the previous one, so that every move is drawn once with no retry.
+     *
+     * @param numberOfMoves The number of moves of the walk
+     * @return The cells of the board, row by row
+     */
+    public short[] walk(int numberOfMoves, SplittableRandom random) {
+        var cells = goalCells.clone();
+        int emptyIndex = cells.length - 1;
+        int previous = -1;
+        for (int move = 0; move < numberOfMoves && cells.length > 1; move++) {
+            var legalDirections = moveTable.legalDirections(emptyIndex);
+            int direction;
+            if (previous < 0) {
+                direction = legalDirections[random.nextInt(legalDirections.length)];
+            } else {
+                direction = legalDirections[random.nextInt(legalDirections.length - 1)];
+                if (direction == (previous + 2) % 4) {
+                    direction = legalDirections[legalDirections.length - 1];
+                }
+            }
+            int to = moveTable.neighborIndex(emptyIndex, direction);
+            cells[emptyIndex] = cells[to];
+            cells[to] = TaquinBoardState.EMPTY_ID;
+            emptyIndex = to;
+            previous = direction;
+        }
+        return cells;
+    }
+
+    /**
+     * A board is solvable if and only if the parity of the permutation of its cells, the empty cell included, is the
+     * parity of the distance of the empty cell to its place in the goal, since every move swaps the empty cell with
+     * another cell. The parity of the permutation is the one of its number of cells minus its number of cycles.
+     *
+     * @param cells The cells of the board, row by row
+     * @return true if the board can reach the goal
+     */
+    public static boolean isSolvable(int size, short[] cells) {
+        int last = cells.length - 1;
+        var visited = new boolean[cells.length];
+        int cycles = 0;
+        int emptyIndex = last;
+        for (int index = 0; index < cells.length; index++) {
+            if (CellUtilities.cellIsEmpty(cells[index])) {
+                emptyIndex = index;
+            }
+            if (visited[index]) {
+                continue;
+            }
+            cycles++;
+            for (int current = index; !visited[current]; ) {
+                visited[current] = true;
+                current = CellUtilities.cellIsEmpty(cells[current]) ? last : cells[current];
+            }
+        }
+        int emptyDistance = size - 1 - emptyIndex % size + size - 1 - emptyIndex / size;
+        return (cells.length - cycles + emptyDistance) % 2 == 0;
+    }
+
+    /**
+     * Generates the boards in parallel and writes them to the file, through a temporary file so that an interrupted
+     * generation never leaves a truncated corpus behind.
+     *
+     * @param count         The number of boards
+     * @param numberOfMoves The number of moves of the random walks, PuzzleCorpus.UNIFORM for uniform boards
+     * @param seed          The seed the boards only depend on
+     * @param threads       The number of threads generating the boards
+     * @throws IllegalArgumentException if the corpus would be larger than PuzzleCorpus.MAX_LENGTH
+     */
+    public void writeCorpus(Path file, int count, int numberOfMoves, long seed, int threads) throws IOException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Cannot generate " + count + " boards");
+        }
+        if (PuzzleCorpus.fileLength(size, count) > PuzzleCorpus.MAX_LENGTH) {
+            throw new IllegalArgumentException("A corpus holds at most "
+                    + (PuzzleCorpus.MAX_LENGTH - PuzzleCorpus.HEADER_LENGTH) / PuzzleCorpus.entryLength(size)
+                    + " boards of size " + size);
+        }
+        int entryLength = PuzzleCorpus.entryLength(size);
+        var root = new SplittableRandom(seed);
+        var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        var pool = new ForkJoinPool(threads);
+        int batchChunks = Math.max(threads, BATCH_LENGTH / (CHUNK_LENGTH * entryLength));
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            output.write(PuzzleCorpus.header(size, numberOfMoves, seed, count));
+            var batch = new byte[(int) Math.min((long) count, (long) batchChunks * CHUNK_LENGTH) * entryLength];
+            for (long first = 0; first < count; first += (long) batchChunks * CHUNK_LENGTH) {
+                int boards = (int) Math.min(count - first, (long) batchChunks * CHUNK_LENGTH);
+                int chunks = (boards + CHUNK_LENGTH - 1) / CHUNK_LENGTH;
+                var streams = new SplittableRandom[chunks];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    streams[chunk] = root.split(); // in order, whatever the number of threads
+                }
+                pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                    int end = Math.min(boards, (chunk + 1) * CHUNK_LENGTH);
+                    for (int board = chunk * CHUNK_LENGTH; board < end; board++) {
+                        var cells = numberOfMoves == PuzzleCorpus.UNIFORM
+                                ? uniform(streams[chunk]) : walk(numberOfMoves, streams[chunk]);
+                        PuzzleCorpus.pack(cells, batch, board * entryLength);
+                    }
+                })).join();
+                output.write(batch, 0, boards * entryLength);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -22,4 +22,16 @@ public enum TaquinBoardAction {
             case LEFT -> SWAP_LEFT;
         };
     }
+
+    /**
+     * @return The ACTION undoing this one
+     */
+    public TaquinBoardAction mapFromOpposite() {
+        return switch (this) {
+            case SWAP_UP -> SWAP_DOWN;
+            case SWAP_RIGHT -> SWAP_LEFT;
+            case SWAP_DOWN -> SWAP_UP;
+            case SWAP_LEFT -> SWAP_RIGHT;
+        };
+    }
 }
@@ -1,5 +1,6 @@
 package com.Game.Board;
 
+import com.Game.Cell.CellUtilities;
 import com.Game.Cell.Position;
 
 /**
@@ -10,7 +11,51 @@ import com.Game.Cell.Position;
  * implementations of the state, and reducing overhead when refactoring.
  */
 public abstract class TaquinBoardState {
-    public static short EMPTY_ID = 1013;
+    /**
+     * Id of the empty cell, above the id of every other cell of the boards which fit in shorts (up to 181x181)
+     */
+    public static final short EMPTY_ID = Short.MAX_VALUE;
+
+    /**
+     * @param size The size of the board
+     * @return An empty state of the given size, using the most compact implementation able to hold it
+     */
+    public static TaquinBoardState ofSize(int size) {
+        if (size <= PackedBoardState.MAX_SIZE) {
+            return new PackedBoardState(size);
+        }
+        return new DefaultBoardState(size);
+    }
+
+    /**
+     * @param size  The size of the board
+     * @param cells The cells of the board, row by row
+     * @return The board holding the cells, using the most compact implementation able to hold it
+     */
+    public static TaquinBoardState ofCells(int size, short[] cells) {
+        var state = ofSize(size);
+        state.setCells(cells);
+        return state;
+    }
+
+    /**
+     * Inverse of encode.
+     *
+     * @param size     The size of the encoded board
+     * @param encoding The encoding of a board of that size
+     * @return The board of the encoding
+     */
+    public static TaquinBoardState decode(int size, long encoding) {
+        var state = ofSize(size);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = (short) (encoding & 0xF);
+                state.addCell(new Position(x, y), cell == 0 ? EMPTY_ID : (short) (cell - 1));
+                encoding >>>= 4;
+            }
+        }
+        return state;
+    }
 
     public abstract int getSize();
 
@@ -27,15 +72,85 @@ public abstract class TaquinBoardState {
 
     public abstract short getNeighbor(TaquinBoardDirection direction, Position target);
 
-    public abstract boolean targetHasNeighbor(TaquinBoardDirection direction, Position target);
+    /**
+     * @return true if the target, which may lie outside the board, has a neighbor on the board in the direction
+     */
+    public boolean targetHasNeighbor(TaquinBoardDirection direction, Position target) {
+        int x = target.getX();
+        int y = target.getY();
+        if (x < 0 || y < 0 || x >= getSize() || y >= getSize()) {
+            return false;
+        }
+        return getMoveTable().neighborIndex(y * getSize() + x, direction) != MoveTable.NO_NEIGHBOR;
+    }
 
     public abstract void addCell(Position position, short value);
 
+    /**
+     * Replaces every cell of the board at once, which is addCell on every position without building them.
+     *
+     * @param cells The cells of the board, row by row, the cell at (x, y) being at index y * size + x
+     */
+    public abstract void setCells(short[] cells);
+
     public abstract Position getEmptyPosition();
 
+    /**
+     * @return The index y * size + x of the empty cell, kept up to date by the transitions rather than searched for
+     */
+    public abstract int getEmptyIndex();
+
+    /**
+     * @return The moves of the empty cell on the boards of the size of this one
+     */
+    public abstract MoveTable getMoveTable();
+
+    /**
+     * @return The directions in which the empty cell can move, which must not be modified
+     */
+    public TaquinBoardDirection[] getLegalMoves() {
+        return getMoveTable().legalMoves(getEmptyIndex());
+    }
+
+    /**
+     * Moves the empty cell in the direction, which is processAction on the empty cell without locating it first.
+     *
+     * @param direction One of the legal moves of the empty cell
+     * @throws IllegalArgumentException if the move leads out of the board
+     */
+    public abstract void moveEmpty(TaquinBoardDirection direction);
+
     public abstract Position getPositionOfCell(short id);
 
     public abstract TaquinBoardState copy();
 
     public abstract boolean isGoalState();
+
+    /**
+     * @return true if the board is small enough to be encoded in a single long
+     */
+    public boolean canBeEncoded() {
+        return getSize() <= PackedBoardState.MAX_SIZE;
+    }
+
+    /**
+     * Encodes the board in a single long with the layout of PackedBoardState: 4 bits per cell, a cell of id n
+     * stored as n + 1 and the empty cell as 0. Two boards of the same size have the same encoding if and only if
+     * they are equal.
+     *
+     * @return The encoding of the board
+     */
+    public long encode() {
+        if (!canBeEncoded()) {
+            throw new IllegalStateException("A board of size " + getSize() + " cannot be encoded in a long");
+        }
+        long encoding = 0;
+        for (int y = getSize() - 1; y >= 0; y--) {
+            for (int x = getSize() - 1; x >= 0; x--) {
+                var cell = getAtPosition(x, y);
+                encoding = encoding << 4 | (CellUtilities.cellIsEmpty(cell) ? 0 : cell + 1);
+            }
+        }
+        return encoding;
+    }
 }
@@ -2,6 +2,10 @@ package com.Game.Board;
 
 import com.Game.Cell.Position;
 
+/**
+ * The target of a search: the usual goal, with the cells in order and the empty cell last, or any other board, such
+ * as the initial board for a search running backward from the goal.
+ */
 public class TargetBoardState extends DefaultBoardState {
 
     public TargetBoardState(int size) {
@@ -18,4 +22,16 @@ public class TargetBoardState extends DefaultBoardState {
             }
         }
     }
+
+    /**
+     * @param target The board to reach
+     */
+    public TargetBoardState(TaquinBoardState target) {
+        super(target.getSize());
+        for (int y = 0; y < target.getSize(); y++) {
+            for (int x = 0; x < target.getSize(); x++) {
+                addCell(new Position(x, y), target.getAtPosition(x, y));
+            }
+        }
+    }
 }
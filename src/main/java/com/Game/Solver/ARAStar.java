@@ -0,0 +1,414 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Anytime Repairing A* (Likhachev, Gordon and Thrun): a weighted A* ordering the frontier by depth + weight * estimate
+ * finds a first solution quickly, then the weight is lowered step by step down to 1, each search going on from the
+ * nodes the previous ones left instead of starting over.
+ * <p>
+ * Within a search, a node is expanded at most once. A state reached with a lower depth after its node was expanded is
+ * kept aside (the INCONS list of the paper) and only put back in the frontier for the next search, when the frontier
+ * is reordered with the new weight. A search stops as soon as no node of the frontier has a key lower than the length
+ * of the best solution, and nodes which cannot lead to a shorter solution are never added.
+ * <p>
+ * Each solution found is published to the SearchListener, with its suboptimality bound: the solution is at most this
+ * factor longer than an optimal one, given an admissible heuristic. The search ends with an optimal solution once the
+ * bound reaches 1. When the runtime or the frontier size runs out first, the best solution found so far is returned,
+ * flagged as expired, and only expires without a solution when none was found yet.
+ * <p>
+ * The nodes are kept in a NodeArena as in ArenaAStar: a state reached with a lower depth gets a new node, the older
+ * one being marked as replaced and skipped when it comes out of the frontier. The node of each state is found by the
+ * encoding of its board, or for larger boards by an ArenaNodeSet hashing the cells in place in the arena.
+ */
+public class ARAStar extends TaquinSolutionAlgorithm {
+
+    public static final double INITIAL_WEIGHT = 3;
+    public static final double WEIGHT_DECREMENT = 0.5;
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+    private final double initialWeight;
+    private final double weightDecrement;
+
+    /**
+     * @param heuristic The heuristic, which must support getMoveDelta
+     */
+    public ARAStar(Heuristic heuristic, boolean logProgress) {
+        this(heuristic, INITIAL_WEIGHT, WEIGHT_DECREMENT, logProgress);
+    }
+
+    /**
+     * @param heuristic       The heuristic, which must support getMoveDelta
+     * @param initialWeight   The weight of the estimate in the first search, at least 1
+     * @param weightDecrement How much the weight is lowered after each search, above 0
+     */
+    public ARAStar(Heuristic heuristic, double initialWeight, double weightDecrement, boolean logProgress) {
+        if (initialWeight < 1 || weightDecrement <= 0) {
+            throw new IllegalArgumentException("The weight must start at 1 or more and decrease");
+        }
+        this.heuristic = heuristic;
+        this.initialWeight = initialWeight;
+        this.weightDecrement = weightDecrement;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        int size = initialState.getSize();
+        var cells = InPlaceSearch.cellsOf(initialState);
+        var goalCells = InPlaceSearch.goalCells(size);
+        var legalDirections = InPlaceSearch.legalDirections(size);
+        long startTime = System.nanoTime();
+
+        if (Arrays.equals(cells, goalCells)) {
+            var solutionSteps = replaySolution(initialState, heuristic, new int[0]);
+            return new TaquinSolutionHolder(solutionSteps, System.nanoTime() - startTime, 0, 0, false, false);
+        }
+
+        var arena = new NodeArena(initialState);
+        // the node holding the lowest depth each state was reached with
+        var packedNodes = initialState.canBeEncoded() ? new PackedStateMap() : null;
+        var arenaNodes = packedNodes == null ? new ArenaNodeSet(arena) : null;
+        var replaced = new BitSet();
+        // the search which expanded each node, numbered from 1, 0 if none did
+        var expandedIn = new int[1024];
+        var inconsistent = new IntList();
+
+        double weight = initialWeight;
+        var frontier = new WeightedHeap(arena, weight);
+        int root = arena.add(cells, NodeArena.NO_PARENT, 0, 0, heuristic.getEstimate(initialState));
+        frontier.add(root);
+        if (packedNodes != null) {
+            packedNodes.put(arena.encodingOf(root), root);
+        } else {
+            arenaNodes.put(root);
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var listener = getSearchListener();
+        int search = 1;
+        int solutionLength = Integer.MAX_VALUE;
+        int solutionNode = NodeArena.NO_PARENT;
+        List<SolutionStep> solutionSteps = null;
+        double publishedBound = Double.POSITIVE_INFINITY;
+        long numExpansions = 0;
+        long frontierSize = 0;
+
+        while (true) {
+            while (!frontier.isEmpty()) {
+                int node = frontier.peek();
+                if (replaced.get(node)) {
+                    frontier.poll();
+                    continue;
+                }
+                if (frontier.peekKey() >= solutionLength) {
+                    break;
+                }
+                frontier.poll();
+
+                int depth = arena.depthOf(node);
+                int estimate = arena.estimateOf(node);
+                listener.nodeExpanded(depth, estimate);
+                arena.copyCells(node, cells);
+                if (node >= expandedIn.length) {
+                    expandedIn = Arrays.copyOf(expandedIn, Math.max(node + 1, expandedIn.length * 2));
+                }
+                expandedIn[node] = search;
+
+                int from = arena.emptyIndexOf(node);
+                int previousDirection = arena.directionOf(node);
+                for (int direction : legalDirections[from]) {
+                    if (previousDirection >= 0 && direction == InPlaceSearch.opposite(previousDirection)) {
+                        continue;
+                    }
+
+                    // the neighbor cell slides into the empty cell
+                    int to = InPlaceSearch.neighborIndex(size, from, direction);
+                    var movedCell = cells[to];
+                    cells[from] = movedCell;
+                    cells[to] = TaquinBoardState.EMPTY_ID;
+
+                    int childEstimate = estimate + heuristic.getMoveDelta(cells, to, from);
+                    int child = arena.add(cells, node, direction, depth + 1, childEstimate);
+                    int previous = packedNodes != null ? packedNodes.get(arena.encodingOf(child)) :
+                            arenaNodes.get(child);
+                    boolean duplicate = previous != StateMap.MISSING && arena.depthOf(previous) <= depth + 1;
+                    listener.nodeGenerated(duplicate);
+
+                    if (duplicate || depth + 1 + childEstimate >= solutionLength) {
+                        // no shorter path to the state, or no shorter solution through it
+                        arena.removeLast();
+                    } else {
+                        if (packedNodes != null) {
+                            packedNodes.put(arena.encodingOf(child), child);
+                        } else {
+                            arenaNodes.put(child);
+                        }
+                        if (previous != StateMap.MISSING) {
+                            replaced.set(previous);
+                        }
+                        if (childEstimate == 0 && Arrays.equals(cells, goalCells)) {
+                            solutionLength = depth + 1;
+                            solutionNode = child;
+                        } else if (previous != StateMap.MISSING && previous < expandedIn.length
+                                && expandedIn[previous] == search) {
+                            inconsistent.add(child);
+                        } else {
+                            frontier.add(child);
+                        }
+                    }
+
+                    cells[to] = movedCell;
+                    cells[from] = TaquinBoardState.EMPTY_ID;
+                }
+
+                numExpansions++;
+                listener.frontierSize(frontier.size());
+
+                if (frontier.size() > frontierSize) {
+                    frontierSize = frontier.size();
+                }
+
+                boolean frontierExpired = maxFrontierSize > 0 && frontierSize > maxFrontierSize;
+                if (frontierExpired || runtimeExpired(startTime, maxRuntime)) {
+                    if (solutionNode != NodeArena.NO_PARENT
+                            && (solutionSteps == null || solutionLength < solutionSteps.size())) {
+                        // the search cut short already reached the goal, by a path shorter than the published one
+                        int lowerBound = Math.min(solutionLength,
+                                Math.min(frontier.minValue(replaced), inconsistent.minValue(arena, replaced)));
+                        solutionSteps = replaySolution(initialState, heuristic, arena.pathTo(solutionNode));
+                        listener.solutionImproved(solutionSteps, (double) solutionLength / Math.max(1, lowerBound));
+                    }
+                    if (solutionSteps == null) {
+                        return frontierExpired ? TaquinSolutionHolder.getExpiredFrontierSize() :
+                                TaquinSolutionHolder.getExpiredRuntime();
+                    }
+                    return new TaquinSolutionHolder(solutionSteps, System.nanoTime() - startTime, frontierSize,
+                            numExpansions, !frontierExpired, frontierExpired);
+                }
+            }
+
+            if (solutionNode == NodeArena.NO_PARENT) {
+                return TaquinSolutionHolder.getEmpty();
+            }
+
+            // every solution not found yet is at least as long as the lowest depth + estimate left
+            int lowerBound = Math.min(solutionLength,
+                    Math.min(frontier.minValue(replaced), inconsistent.minValue(arena, replaced)));
+            double suboptimalityBound = Math.min(weight, (double) solutionLength / lowerBound);
+            if (solutionSteps == null || solutionLength < solutionSteps.size()
+                    || suboptimalityBound < publishedBound) {
+                solutionSteps = replaySolution(initialState, heuristic, arena.pathTo(solutionNode));
+                publishedBound = suboptimalityBound;
+                listener.solutionImproved(solutionSteps, suboptimalityBound);
+                if (logProgress) {
+                    System.out.println("Weight " + weight + " : solution of " + solutionLength
+                            + " moves, at most " + suboptimalityBound + " times the optimal");
+                }
+            }
+            listener.iterationFinished(search);
+
+            if (suboptimalityBound <= 1) {
+                return new TaquinSolutionHolder(solutionSteps, System.nanoTime() - startTime, frontierSize,
+                        numExpansions, false, false);
+            }
+
+            weight = Math.max(1, weight - weightDecrement);
+            search++;
+            for (int index = 0; index < inconsistent.size(); index++) {
+                frontier.add(inconsistent.get(index));
+            }
+            inconsistent.clear();
+            frontier.reorder(weight, replaced);
+        }
+    }
+
+    /**
+     * Growable list of node indexes
+     */
+    private static final class IntList {
+
+        private int[] nodes = new int[64];
+        private int size = 0;
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+        }
+
+        int get(int index) {
+            return nodes[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * @return The lowest depth + estimate of the nodes not replaced, Integer.MAX_VALUE if there are none
+         */
+        int minValue(NodeArena arena, BitSet replaced) {
+            int min = Integer.MAX_VALUE;
+            for (int index = 0; index < size; index++) {
+                int node = nodes[index];
+                if (!replaced.get(node)) {
+                    min = Math.min(min, arena.depthOf(node) + arena.estimateOf(node));
+                }
+            }
+            return min;
+        }
+    }
+
+    /**
+     * Binary heap of node indexes, ordered by depth + weight * estimate, the deepest node first on ties.
+     * The keys are kept next to the nodes, and computed again for all of them when the weight changes.
+     */
+    private static final class WeightedHeap {
+
+        private final NodeArena arena;
+        private double weight;
+        private int[] nodes = new int[1024];
+        private double[] keys = new double[1024];
+        private int size = 0;
+
+        WeightedHeap(NodeArena arena, double weight) {
+            this.arena = arena;
+            this.weight = weight;
+        }
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            nodes[size] = node;
+            keys[size] = keyOf(node);
+            siftUp(size++);
+        }
+
+        int peek() {
+            return nodes[0];
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        int poll() {
+            int first = nodes[0];
+            size--;
+            if (size > 0) {
+                nodes[0] = nodes[size];
+                keys[0] = keys[size];
+                siftDown(0);
+            }
+            return first;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return The lowest depth + estimate of the nodes not replaced, Integer.MAX_VALUE if there are none
+         */
+        int minValue(BitSet replaced) {
+            int min = Integer.MAX_VALUE;
+            for (int index = 0; index < size; index++) {
+                int node = nodes[index];
+                if (!replaced.get(node)) {
+                    min = Math.min(min, arena.depthOf(node) + arena.estimateOf(node));
+                }
+            }
+            return min;
+        }
+
+        /**
+         * Drops the replaced nodes and orders the others for the new weight, in linear time
+         */
+        void reorder(double weight, BitSet replaced) {
+            this.weight = weight;
+            int kept = 0;
+            for (int index = 0; index < size; index++) {
+                int node = nodes[index];
+                if (!replaced.get(node)) {
+                    nodes[kept] = node;
+                    keys[kept] = keyOf(node);
+                    kept++;
+                }
+            }
+            size = kept;
+            for (int position = (size >>> 1) - 1; position >= 0; position--) {
+                siftDown(position);
+            }
+        }
+
+        private double keyOf(int node) {
+            return arena.depthOf(node) + weight * arena.estimateOf(node);
+        }
+
+        private void siftUp(int position) {
+            int node = nodes[position];
+            double key = keys[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!isBefore(key, node, keys[parent], nodes[parent])) {
+                    break;
+                }
+                nodes[position] = nodes[parent];
+                keys[position] = keys[parent];
+                position = parent;
+            }
+            nodes[position] = node;
+            keys[position] = key;
+        }
+
+        private void siftDown(int position) {
+            int node = nodes[position];
+            double key = keys[position];
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && isBefore(keys[child + 1], nodes[child + 1], keys[child], nodes[child])) {
+                    child++;
+                }
+                if (!isBefore(keys[child], nodes[child], key, node)) {
+                    break;
+                }
+                nodes[position] = nodes[child];
+                keys[position] = keys[child];
+                position = child;
+            }
+            nodes[position] = node;
+            keys[position] = key;
+        }
+
+        private boolean isBefore(double key, int node, double otherKey, int other) {
+            return key < otherKey || key == otherKey && arena.depthOf(node) > arena.depthOf(other);
+        }
+    }
+}
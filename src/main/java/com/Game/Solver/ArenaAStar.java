@@ -0,0 +1,194 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.Arrays;
+
+/**
+ * AStar over a NodeArena: the nodes are indexes into primitive arrays instead of SolutionStep objects holding a copy
+ * of their board, so expanding a node allocates nothing and the garbage collector has no object graph to walk.
+ * The board of the expanded node is decoded into a single array of cells, the children are generated by swapping two
+ * cells of it, and their estimate is updated from the move alone via Heuristic.getMoveDelta.
+ * The frontier is a binary heap of node indexes, ordered by depth + estimate, the deepest node first on ties.
+ * <p>
+ * Like AStar, a state is only added to the frontier the first time it is seen, so the solution may not be optimal.
+ * The SolutionSteps of the solution are only built at the end, by replaying the path read back from the arena.
+ */
+public class ArenaAStar extends TaquinSolutionAlgorithm {
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+
+    /**
+     * @param heuristic The heuristic, which must support getMoveDelta
+     */
+    public ArenaAStar(Heuristic heuristic, boolean logProgress) {
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        int size = initialState.getSize();
+        var cells = InPlaceSearch.cellsOf(initialState);
+        var goalCells = InPlaceSearch.goalCells(size);
+        var legalDirections = InPlaceSearch.legalDirections(size);
+
+        var arena = new NodeArena(initialState);
+        var frontier = new NodeHeap(arena);
+        // the seen states are registered by their encoding, or by their node hashed in place in the arena, so
+        // checking a child for duplicates never builds a board
+        var packedStates = initialState.canBeEncoded() ? new PackedStateSet() : null;
+        var seenNodes = packedStates == null ? new ArenaNodeSet(arena) : null;
+
+        int root = arena.add(cells, NodeArena.NO_PARENT, 0, 0, heuristic.getEstimate(initialState));
+        frontier.add(root);
+        if (packedStates != null) {
+            packedStates.add(arena.encodingOf(root));
+        } else {
+            seenNodes.add(root);
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var listener = getSearchListener();
+        long startTime = System.nanoTime();
+        long numExpansions = 0;
+        long frontierSize = 0;
+
+        while (!frontier.isEmpty()) {
+            int node = frontier.poll();
+            int depth = arena.depthOf(node);
+            int estimate = arena.estimateOf(node);
+            listener.nodeExpanded(depth, estimate);
+            arena.copyCells(node, cells);
+
+            // Every admissible heuristic is 0 on the goal, so there is no need to compare the cells otherwise
+            if (estimate == 0 && Arrays.equals(cells, goalCells)) {
+                long elapsedTime = System.nanoTime() - startTime;
+                if (logProgress) System.out.println("Nodes in the arena : " + arena.size());
+                var solutionSteps = replaySolution(initialState, heuristic, arena.pathTo(node));
+                return new TaquinSolutionHolder(solutionSteps, elapsedTime, frontierSize, numExpansions, false, false);
+            }
+
+            int from = arena.emptyIndexOf(node);
+            int previousDirection = arena.directionOf(node);
+            for (int direction : legalDirections[from]) {
+                if (previousDirection >= 0 && direction == InPlaceSearch.opposite(previousDirection)) {
+                    continue;
+                }
+
+                // the neighbor cell slides into the empty cell
+                int to = InPlaceSearch.neighborIndex(size, from, direction);
+                var movedCell = cells[to];
+                cells[from] = movedCell;
+                cells[to] = TaquinBoardState.EMPTY_ID;
+
+                int child = arena.add(cells, node, direction, depth + 1,
+                        estimate + heuristic.getMoveDelta(cells, to, from));
+                boolean isNew = packedStates != null ? packedStates.add(arena.encodingOf(child)) :
+                        seenNodes.add(child);
+                if (isNew) {
+                    frontier.add(child);
+                } else {
+                    arena.removeLast();
+                }
+                listener.nodeGenerated(!isNew);
+
+                cells[to] = movedCell;
+                cells[from] = TaquinBoardState.EMPTY_ID;
+            }
+
+            numExpansions++;
+            listener.frontierSize(frontier.size());
+
+            if (frontier.size() > frontierSize) {
+                frontierSize = frontier.size();
+            }
+
+            if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
+                return TaquinSolutionHolder.getExpiredFrontierSize();
+            }
+
+            if (runtimeExpired(startTime, maxRuntime)) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+        }
+
+        return TaquinSolutionHolder.getEmpty();
+    }
+
+    /**
+     * Binary heap of node indexes, ordered by depth + estimate, the deepest node first on ties
+     */
+    private static final class NodeHeap {
+
+        private final NodeArena arena;
+        private int[] nodes = new int[1024];
+        private int size = 0;
+
+        NodeHeap(NodeArena arena) {
+            this.arena = arena;
+        }
+
+        void add(int node) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int position = size++;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!isBefore(node, nodes[parent])) {
+                    break;
+                }
+                nodes[position] = nodes[parent];
+                position = parent;
+            }
+            nodes[position] = node;
+        }
+
+        int poll() {
+            int first = nodes[0];
+            int last = nodes[--size];
+            int position = 0;
+            int half = size >>> 1;
+            while (position < half) {
+                int child = 2 * position + 1;
+                if (child + 1 < size && isBefore(nodes[child + 1], nodes[child])) {
+                    child++;
+                }
+                if (!isBefore(nodes[child], last)) {
+                    break;
+                }
+                nodes[position] = nodes[child];
+                position = child;
+            }
+            nodes[position] = last;
+            return first;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private boolean isBefore(int node, int other) {
+            int depth = arena.depthOf(node);
+            int otherDepth = arena.depthOf(other);
+            int value = depth + arena.estimateOf(node);
+            int otherValue = otherDepth + arena.estimateOf(other);
+            return value < otherValue || value == otherValue && depth > otherDepth;
+        }
+    }
+}
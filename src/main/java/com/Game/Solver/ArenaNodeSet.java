@@ -0,0 +1,141 @@
+package com.Game.Solver;
+
+import java.util.Arrays;
+
+/**
+ * Set of the nodes of a NodeArena whose boards cannot be encoded, two nodes being equal when they hold the same board.
+ * It holds at most one node per board, and doubles as a map from a board to the node standing for it, see put.
+ * The node indexes are stored in a primitive array with open addressing and linear probing, next to the hash of their
+ * cells, and the cells are hashed and compared in place in the arena, so no board object is built for a lookup.
+ * When the number of nodes exceeds the load factor, the capacity doubles and all nodes are reinserted from their
+ * stored hashes.
+ */
+public class ArenaNodeSet {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Node returned by get and put when no node holds the board
+     */
+    public static final int MISSING = StateMap.MISSING;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int FREE = -1;
+
+    private final NodeArena arena;
+
+    private int[] nodes;
+    private int[] hashes;
+    private int shift;
+    private int resizeThreshold;
+    private int size;
+
+    public ArenaNodeSet(NodeArena arena) {
+        this.arena = arena;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param node A node of the arena
+     * @return true if no node holding the same board was already in the set, in which case the node is added
+     */
+    public boolean add(int node) {
+        int hash = arena.hashCells(node);
+        int slot = slotOf(node, hash);
+        if (nodes[slot] != FREE) {
+            return false;
+        }
+        insert(slot, node, hash);
+        return true;
+    }
+
+    /**
+     * @param node A node of the arena, in the set or not
+     * @return The node of the set holding the same board, MISSING if there is none
+     */
+    public int get(int node) {
+        int slot = slotOf(node, arena.hashCells(node));
+        return nodes[slot] == FREE ? MISSING : nodes[slot];
+    }
+
+    /**
+     * Adds the node, in place of the node holding the same board if there is one
+     *
+     * @return The node replaced, MISSING if there was none
+     */
+    public int put(int node) {
+        int hash = arena.hashCells(node);
+        int slot = slotOf(node, hash);
+        int previous = nodes[slot];
+        if (previous != FREE) {
+            nodes[slot] = node;
+            return previous;
+        }
+        insert(slot, node, hash);
+        return MISSING;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The slot of the node holding the same board as the node, or the free slot ending its probe
+     */
+    private int slotOf(int node, int hash) {
+        int mask = nodes.length - 1;
+        int slot = slotOf(hash);
+        while (nodes[slot] != FREE) {
+            if (hashes[slot] == hash && arena.sameCells(nodes[slot], node)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, int node, int hash) {
+        nodes[slot] = node;
+        hashes[slot] = hash;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Fibonacci hashing, as in PackedStateSet: the highest bits of the hash times the golden ratio give the slot
+     */
+    private int slotOf(int hash) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        nodes = new int[capacity];
+        Arrays.fill(nodes, FREE);
+        hashes = new int[capacity];
+        shift = Long.numberOfLeadingZeros(capacity) + 1;
+        resizeThreshold = (int) Math.min(capacity * (double) DEFAULT_LOAD_FACTOR, capacity - 1);
+    }
+
+    private void resize() {
+        if (nodes.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Arena node set cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        var oldNodes = nodes;
+        var oldHashes = hashes;
+        allocate(oldNodes.length << 1);
+        int mask = nodes.length - 1;
+        for (int index = 0; index < oldNodes.length; index++) {
+            if (oldNodes[index] == FREE) {
+                continue;
+            }
+            int slot = slotOf(oldHashes[index]);
+            while (nodes[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            nodes[slot] = oldNodes[index];
+            hashes[slot] = oldHashes[index];
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.Arrays;
+
+/**
+ * Beam search: a breadth first search keeping only the width nodes with the lowest estimate of each layer, chosen
+ * among their children by a quickselect rather than a sort. Duplicates are only detected within a sliding window of
+ * the last layers, by a 64-bit hash of the boards, so a state seen before the window may be explored again.
+ * The solution is not optimal, and a state the beam dropped may make the search miss every solution.
+ * <p>
+ * Unlike the frontiers of AStar and GreedyAstar, every array is allocated once for the width, so the memory of a
+ * search is known in advance: two layers of boards, the candidates of a layer and the hashes of the window, plus
+ * 4 bytes per node kept to read the solution back, up to MAX_MOVES_PER_CELL moves per cell.
+ * The width is the frontier size budget of the solve, or the default width of the instance when there is none.
+ * Going past the last layer, or a beam left with only duplicates, gives up as an expired frontier size since the
+ * board is solvable and a wider beam may find a solution.
+ */
+public class BeamSearch extends TaquinSolutionAlgorithm {
+
+    public static final int DEFAULT_WIDTH = 1 << 12;
+    /**
+     * The shortest cycles of the puzzle take 12 moves, a window of 16 layers finds the duplicates along them
+     */
+    public static final int DEFAULT_WINDOW = 16;
+    public static final int MAX_MOVES_PER_CELL = 20;
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+    private final int defaultWidth;
+    private final int window;
+
+    /**
+     * @param heuristic The heuristic, which must support getMoveDelta
+     */
+    public BeamSearch(Heuristic heuristic, boolean logProgress) {
+        this(heuristic, DEFAULT_WIDTH, DEFAULT_WINDOW, logProgress);
+    }
+
+    /**
+     * @param heuristic    The heuristic, which must support getMoveDelta
+     * @param defaultWidth The number of nodes kept per layer when the solve has no frontier size budget
+     * @param window       The number of layers, the last one included, whose states are not explored again
+     */
+    public BeamSearch(Heuristic heuristic, int defaultWidth, int window, boolean logProgress) {
+        if (defaultWidth < 1 || window < 1) {
+            throw new IllegalArgumentException("The width and the window must be positive");
+        }
+        this.heuristic = heuristic;
+        this.defaultWidth = defaultWidth;
+        this.window = window;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        int width = maxFrontierSize > 0 ? (int) Math.min(maxFrontierSize, Integer.MAX_VALUE / 4) : defaultWidth;
+        int size = initialState.getSize();
+        int cellCount = size * size;
+        int maxDepth = MAX_MOVES_PER_CELL * cellCount;
+        var goalCells = InPlaceSearch.goalCells(size);
+        var legalDirections = InPlaceSearch.legalDirections(size);
+        long startTime = System.nanoTime();
+
+        var layer = new Layer(width, cellCount);
+        var nextLayer = new Layer(width, cellCount);
+        var candidates = new Candidates(Math.max(4, 3 * width));
+        var seenStates = new WindowedHashSet(window, width, candidates.capacity);
+        // the parent index and direction of each node kept, per depth, to read the solution back
+        var parents = new int[maxDepth + 1][];
+
+        var cells = InPlaceSearch.cellsOf(initialState);
+        if (Arrays.equals(cells, goalCells)) {
+            var solutionSteps = replaySolution(initialState, heuristic, new int[0]);
+            return new TaquinSolutionHolder(solutionSteps, System.nanoTime() - startTime, 0, 0, false, false);
+        }
+        System.arraycopy(cells, 0, layer.cells, 0, cellCount);
+        layer.hashes[0] = hashOf(cells);
+        layer.estimates[0] = heuristic.getEstimate(initialState);
+        layer.emptyIndexes[0] = InPlaceSearch.emptyIndexOf(cells);
+        layer.size = 1;
+        parents[0] = new int[]{-1};
+        seenStates.add(layer.hashes[0]);
+        seenStates.endLayer(layer.hashes, 1, candidates);
+
+        if (logProgress) {
+            System.out.println("Start Solve! Beam width : " + width);
+        }
+
+        var listener = getSearchListener();
+        long numExpansions = 0;
+        long frontierSize = 1;
+        for (int depth = 0; depth < maxDepth; depth++) {
+            // generates the children of the layer, dropping the states of the window
+            candidates.size = 0;
+            for (int node = 0; node < layer.size; node++) {
+                int estimate = layer.estimates[node];
+                listener.nodeExpanded(depth, estimate);
+                System.arraycopy(layer.cells, node * cellCount, cells, 0, cellCount);
+                int from = layer.emptyIndexes[node];
+                int previousDirection = parents[depth][node] & 3;
+                for (int direction : legalDirections[from]) {
+                    if (depth > 0 && direction == InPlaceSearch.opposite(previousDirection)) {
+                        continue;
+                    }
+                    int to = InPlaceSearch.neighborIndex(size, from, direction);
+                    var movedCell = cells[to];
+                    cells[from] = movedCell;
+                    cells[to] = TaquinBoardState.EMPTY_ID;
+
+                    int childEstimate = estimate + heuristic.getMoveDelta(cells, to, from);
+                    if (childEstimate == 0 && Arrays.equals(cells, goalCells)) {
+                        var directions = pathTo(parents, depth, node, direction);
+                        var solutionSteps = replaySolution(initialState, heuristic, directions);
+                        return new TaquinSolutionHolder(solutionSteps, System.nanoTime() - startTime, frontierSize,
+                                numExpansions + 1, false, false);
+                    }
+                    long hash = layer.hashes[node] ^ cellHash(movedCell, to, cellCount)
+                            ^ cellHash(movedCell, from, cellCount);
+                    boolean duplicate = !seenStates.add(hash);
+                    listener.nodeGenerated(duplicate);
+                    if (!duplicate) {
+                        candidates.add(node, direction, childEstimate, hash);
+                    }
+
+                    cells[to] = movedCell;
+                    cells[from] = TaquinBoardState.EMPTY_ID;
+                }
+                numExpansions++;
+            }
+
+            if (candidates.size == 0) { // every child was a duplicate, the beam is stuck although a solution exists
+                return TaquinSolutionHolder.getExpiredFrontierSize();
+            }
+
+            // keeps the best width children, and builds their boards
+            int kept = candidates.selectBest(width);
+            var layerParents = new int[kept];
+            for (int index = 0; index < kept; index++) {
+                int candidate = candidates.candidateAt(index);
+                int parent = candidates.parents[candidate];
+                int direction = candidates.directions[candidate];
+                int from = layer.emptyIndexes[parent];
+                int to = InPlaceSearch.neighborIndex(size, from, direction);
+                int offset = index * cellCount;
+                System.arraycopy(layer.cells, parent * cellCount, nextLayer.cells, offset, cellCount);
+                nextLayer.cells[offset + from] = nextLayer.cells[offset + to];
+                nextLayer.cells[offset + to] = TaquinBoardState.EMPTY_ID;
+                nextLayer.emptyIndexes[index] = to;
+                nextLayer.estimates[index] = candidates.estimates[candidate];
+                nextLayer.hashes[index] = candidates.hashes[candidate];
+                layerParents[index] = parent << 2 | direction;
+            }
+            nextLayer.size = kept;
+            parents[depth + 1] = layerParents;
+            seenStates.endLayer(nextLayer.hashes, kept, candidates);
+
+            var swap = layer;
+            layer = nextLayer;
+            nextLayer = swap;
+            listener.frontierSize(layer.size);
+            frontierSize = Math.max(frontierSize, layer.size);
+
+            if (runtimeExpired(startTime, maxRuntime)) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+        }
+
+        if (logProgress) System.out.println("No solution within " + maxDepth + " moves");
+        return TaquinSolutionHolder.getExpiredFrontierSize();
+    }
+
+    /**
+     * @return The directions from the root to the child of the node in the direction
+     */
+    private static int[] pathTo(int[][] parents, int depth, int node, int direction) {
+        var directions = new int[depth + 1];
+        directions[depth] = direction;
+        for (int layer = depth; layer > 0; layer--) {
+            int parent = parents[layer][node];
+            directions[layer - 1] = parent & 3;
+            node = parent >>> 2;
+        }
+        return directions;
+    }
+
+    /**
+     * @return The hash of the board, the xor of the hashes of its cells but the empty one
+     */
+    private static long hashOf(short[] cells) {
+        long hash = 0;
+        for (int index = 0; index < cells.length; index++) {
+            if (!CellUtilities.cellIsEmpty(cells[index])) {
+                hash ^= cellHash(cells[index], index, cells.length);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of SplitMix64 over the cell and its index, so the hash of a board is updated by a move from the
+     * two indexes of the moved cell alone, without a table growing with the square of the number of cells
+     */
+    private static long cellHash(short cell, int index, int cellCount) {
+        long hash = (long) cell * cellCount + index + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ hash >>> 30) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ hash >>> 27) * 0x94D049BB133111EBL;
+        return hash ^ hash >>> 31;
+    }
+
+    /**
+     * The nodes of a layer, the cells of their boards laid one after the other
+     */
+    private static final class Layer {
+
+        final short[] cells;
+        final long[] hashes;
+        final int[] estimates;
+        final int[] emptyIndexes;
+        int size;
+
+        Layer(int width, int cellCount) {
+            cells = new short[width * cellCount];
+            hashes = new long[width];
+            estimates = new int[width];
+            emptyIndexes = new int[width];
+        }
+    }
+
+    /**
+     * The children of a layer, as their parent and direction rather than as boards
+     */
+    private static final class Candidates {
+
+        final int capacity;
+        final int[] parents;
+        final byte[] directions;
+        final int[] estimates;
+        final long[] hashes;
+        /**
+         * The estimate of each candidate in the high bits and its index in the low ones, the order of the selection
+         */
+        final long[] order;
+        int size;
+
+        Candidates(int capacity) {
+            this.capacity = capacity;
+            parents = new int[capacity];
+            directions = new byte[capacity];
+            estimates = new int[capacity];
+            hashes = new long[capacity];
+            order = new long[capacity];
+        }
+
+        void add(int parent, int direction, int estimate, long hash) {
+            parents[size] = parent;
+            directions[size] = (byte) direction;
+            estimates[size] = estimate;
+            hashes[size] = hash;
+            order[size] = (long) estimate << 32 | size;
+            size++;
+        }
+
+        /**
+         * Moves the count candidates with the lowest estimates to the front of the order, in no particular order,
+         * with a quickselect in linear time on average
+         *
+         * @return The number of candidates selected, count or all of them if there are fewer
+         */
+        int selectBest(int count) {
+            if (size <= count) {
+                return size;
+            }
+            int low = 0;
+            int high = size - 1;
+            while (low < high) {
+                // median of three, so a layer already ordered does not take quadratic time
+                int middle = (low + high) >>> 1;
+                if (order[middle] < order[low]) swap(middle, low);
+                if (order[high] < order[low]) swap(high, low);
+                if (order[high] < order[middle]) swap(high, middle);
+                long pivot = order[middle];
+                int left = low;
+                int right = high;
+                while (left <= right) {
+                    while (order[left] < pivot) left++;
+                    while (order[right] > pivot) right--;
+                    if (left <= right) {
+                        swap(left++, right--);
+                    }
+                }
+                if (count - 1 <= right) {
+                    high = right;
+                } else if (count - 1 >= left) {
+                    low = left;
+                } else {
+                    break;
+                }
+            }
+            return count;
+        }
+
+        int candidateAt(int index) {
+            return (int) order[index];
+        }
+
+        private void swap(int first, int second) {
+            long value = order[first];
+            order[first] = order[second];
+            order[second] = value;
+        }
+    }
+
+    /**
+     * Open addressing set of the hashes of the states of the last window layers, and of the children generated for
+     * the next one. The hashes of the children not selected and of the layer leaving the window are removed with
+     * backward shift deletion, so the set never needs to be rebuilt and its capacity is fixed.
+     */
+    private static final class WindowedHashSet {
+
+        private static final long FREE = 0;
+
+        private final long[] slots;
+        private final int mask;
+        private final long[][] layers;
+        private final int[] layerSizes;
+        private int nextLayer = 0;
+
+        WindowedHashSet(int window, int width, int candidateCapacity) {
+            long entries = (long) window * width + candidateCapacity;
+            int capacity = Integer.highestOneBit((int) Math.min(entries * 2, 1 << 30) - 1) << 1;
+            slots = new long[Math.max(capacity, 16)];
+            mask = slots.length - 1;
+            layers = new long[window][width];
+            layerSizes = new int[window];
+        }
+
+        /**
+         * @return false if the hash is already in the set
+         */
+        boolean add(long hash) {
+            if (hash == FREE) {
+                hash = 1; // FREE marks the empty slots, the board hashing to it shares a hash with another one
+            }
+            int slot = slotOf(hash);
+            while (slots[slot] != FREE) {
+                if (slots[slot] == hash) {
+                    return false;
+                }
+                slot = slot + 1 & mask;
+            }
+            slots[slot] = hash;
+            return true;
+        }
+
+        /**
+         * Removes the hashes of the candidates not selected and of the oldest layer, and records the new layer
+         */
+        void endLayer(long[] layerHashes, int layerSize, Candidates candidates) {
+            for (int index = layerSize; index < candidates.size; index++) {
+                remove(candidates.hashes[candidates.candidateAt(index)]);
+            }
+            var oldest = layers[nextLayer];
+            for (int index = 0; index < layerSizes[nextLayer]; index++) {
+                remove(oldest[index]);
+            }
+            System.arraycopy(layerHashes, 0, oldest, 0, layerSize);
+            layerSizes[nextLayer] = layerSize;
+            nextLayer = (nextLayer + 1) % layers.length;
+        }
+
+        private void remove(long hash) {
+            if (hash == FREE) {
+                hash = 1;
+            }
+            int slot = slotOf(hash);
+            while (slots[slot] != hash) {
+                if (slots[slot] == FREE) {
+                    return;
+                }
+                slot = slot + 1 & mask;
+            }
+            // shifts back the following hashes of the cluster which would no longer be found past the free slot
+            int free = slot;
+            slot = slot + 1 & mask;
+            while (slots[slot] != FREE) {
+                int home = slotOf(slots[slot]);
+                if ((slot - home & mask) >= (slot - free & mask)) {
+                    slots[free] = slots[slot];
+                    free = slot;
+                }
+                slot = slot + 1 & mask;
+            }
+            slots[free] = FREE;
+        }
+
+        private int slotOf(long hash) {
+            return (int) (hash ^ hash >>> 32) & mask;
+        }
+    }
+}
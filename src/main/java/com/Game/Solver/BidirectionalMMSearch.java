@@ -0,0 +1,217 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.Position;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bidirectional heuristic search meeting in the middle (MM).
+ * A forward search runs from the initial board towards the goal, and a backward search from the goal towards the
+ * initial board, with the same heuristic built for the initial board as target. Since moves can always be undone,
+ * the backward search uses the same moves.
+ * <p>
+ * Each side orders its frontier by max(depth + estimate, 2 * depth), so neither side goes beyond half of the optimal
+ * solution length before the searches meet, and the side with the lowest priority is expanded. Every time a side
+ * reaches a state in the frontier of the other side, the two paths form a solution. The best one is optimal once its
+ * length is below the lowest priority of both sides, or below the sum of the lowest depths of both frontiers plus
+ * one move.
+ * Like IndexedAStar, states reached again with a lower depth are replaced in the frontier or reopened.
+ */
+public class BidirectionalMMSearch extends TaquinSolutionAlgorithm {
+
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+
+    public BidirectionalMMSearch(Heuristic heuristic, boolean logProgress) {
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        long startTime = System.nanoTime();
+        var forwardStep = new SolutionStep(initialState, null, null, 0);
+        forwardStep.setHeuristicValue(heuristic.getResult(forwardStep));
+        if (initialState.isGoalState()) {
+            return new TaquinSolutionHolder(unwindSolutionTree(forwardStep), 0, 0, 0, false, false);
+        }
+
+        // the goal in the same representation as the initial board, so the states of both sides compare equal
+        var goalState = TaquinBoardState.ofSize(initialState.getSize());
+        var target = new TargetBoardState(initialState.getSize());
+        for (int y = 0; y < target.getSize(); y++) {
+            for (int x = 0; x < target.getSize(); x++) {
+                goalState.addCell(new Position(x, y), target.getAtPosition(x, y));
+            }
+        }
+        var sides = new Side[]{
+                new Side(heuristic, initialState),
+                new Side(heuristic.forTarget(new TargetBoardState(initialState)), initialState)
+        };
+        sides[FORWARD].add(forwardStep);
+        var backwardStep = new SolutionStep(goalState, null, null, 0);
+        backwardStep.setHeuristicValue(sides[BACKWARD].priorityOf(backwardStep));
+        sides[BACKWARD].add(backwardStep);
+
+        int bestLength = Integer.MAX_VALUE;
+        SolutionStep[] meeting = new SolutionStep[2];
+        long numExpansions = 0;
+        long frontierSize = 0;
+        var listener = getSearchListener();
+
+        while (!sides[FORWARD].frontier.isEmpty() && !sides[BACKWARD].frontier.isEmpty()) {
+            int forwardPriority = sides[FORWARD].frontier.peek().getHeuristicValue();
+            int backwardPriority = sides[BACKWARD].frontier.peek().getHeuristicValue();
+            int lowerBound = Math.max(Math.min(forwardPriority, backwardPriority),
+                    sides[FORWARD].lowestDepth() + sides[BACKWARD].lowestDepth() + 1);
+            if (bestLength <= lowerBound) {
+                long elapsedTime = System.nanoTime() - startTime;
+                if (logProgress) System.out.println("Searches met after " + numExpansions + " expansions");
+                var solutionSteps = joinPaths(meeting[FORWARD], meeting[BACKWARD]);
+                return new TaquinSolutionHolder(solutionSteps, elapsedTime, frontierSize, numExpansions, false, false);
+            }
+
+            int direction = forwardPriority <= backwardPriority ? FORWARD : BACKWARD;
+            var side = sides[direction];
+            var other = sides[1 - direction];
+            var currentState = side.poll();
+            // the layers of MM are its priorities
+            listener.nodeExpanded(currentState.depth(), currentState.getHeuristicValue() - currentState.depth());
+
+            for (TaquinBoardDirection boardDirection : currentState.state().getLegalMoves()) {
+                var instruction = TaquinBoardAction.mapFromDirection(boardDirection);
+                if (currentState.instruction() == instruction.mapFromOpposite()) {
+                    continue; // undoing the previous move never leads to a lower depth
+                }
+                var newBoardState = currentState.state().copy();
+                newBoardState.moveEmpty(boardDirection);
+
+                var newDistance = currentState.depth() + 1;
+                int bestDepth = side.bestDepths.get(newBoardState);
+                boolean duplicate = bestDepth != StateMap.MISSING && bestDepth <= newDistance;
+                listener.nodeGenerated(duplicate);
+                if (duplicate) {
+                    continue;
+                }
+                var solutionStep = new SolutionStep(newBoardState, currentState, instruction, newDistance);
+                solutionStep.setHeuristicValue(side.priorityOf(solutionStep));
+                side.add(solutionStep);
+
+                var otherStep = other.frontier.get(newBoardState);
+                if (otherStep != null && newDistance + otherStep.depth() < bestLength) {
+                    bestLength = newDistance + otherStep.depth();
+                    meeting[direction] = solutionStep;
+                    meeting[1 - direction] = otherStep;
+                    if (logProgress) System.out.println("Best solution : " + bestLength);
+                }
+            }
+
+            numExpansions++;
+
+            long size = sides[FORWARD].frontier.size() + sides[BACKWARD].frontier.size();
+            listener.frontierSize(size);
+            if (size > frontierSize) {
+                frontierSize = size;
+            }
+
+            if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
+                return TaquinSolutionHolder.getExpiredFrontierSize();
+            }
+
+            if (runtimeExpired(startTime, maxRuntime)) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+        }
+
+        return TaquinSolutionHolder.getEmpty();
+    }
+
+    /**
+     * Continues the forward path with the moves of the backward path undone, from the meeting state to the goal.
+     */
+    private List<SolutionStep> joinPaths(SolutionStep forward, SolutionStep backward) {
+        var step = forward;
+        var backwardStep = backward;
+        while (backwardStep.parentState() != null) {
+            var instruction = backwardStep.instruction().mapFromOpposite();
+            step = new SolutionStep(backwardStep.parentState().state(), step, instruction, step.depth() + 1);
+            step.setHeuristicValue(heuristic.getResult(step));
+            backwardStep = backwardStep.parentState();
+        }
+        var solutionSteps = unwindSolutionTree(step);
+        return solutionSteps == null ? null : new ArrayList<>(solutionSteps);
+    }
+
+    /**
+     * One direction of the search: its heuristic, its frontier ordered by MM priority, and the lowest depth each of
+     * its states was reached with
+     */
+    private static class Side {
+
+        private final Heuristic heuristic;
+        private final IndexedHeapFrontier frontier;
+        private final StateMap bestDepths;
+
+        /**
+         * Number of steps of each depth in the frontier, to find the lowest depth of the frontier
+         */
+        private int[] depthCounts = new int[64];
+
+        Side(Heuristic heuristic, TaquinBoardState initialState) {
+            this.heuristic = heuristic;
+            this.frontier = new IndexedHeapFrontier(initialState);
+            this.bestDepths = StateMap.forState(initialState);
+        }
+
+        int priorityOf(SolutionStep step) {
+            return Math.max(heuristic.getResult(step), 2 * step.depth());
+        }
+
+        void add(SolutionStep step) {
+            var previous = frontier.get(step.state());
+            if (previous != null) {
+                depthCounts[previous.depth()]--;
+            }
+            if (step.depth() >= depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, depthCounts.length * 2);
+            }
+            depthCounts[step.depth()]++;
+            bestDepths.put(step.state(), step.depth());
+            frontier.add(step);
+        }
+
+        SolutionStep poll() {
+            var step = frontier.poll();
+            depthCounts[step.depth()]--;
+            return step;
+        }
+
+        int lowestDepth() {
+            for (int depth = 0; depth < depthCounts.length; depth++) {
+                if (depthCounts[depth] > 0) {
+                    return depth;
+                }
+            }
+            return 0;
+        }
+    }
+}
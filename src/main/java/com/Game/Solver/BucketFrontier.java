@@ -0,0 +1,125 @@
+package com.Game.Solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Frontier made of one bucket per heuristic value.
+ * On the sliding puzzle, the heuristic values are small non-negative integers, so the buckets can be stored in an
+ * array indexed by the value. We keep the index of the lowest bucket that may hold steps: it only moves up while
+ * polling, and moves down when a lower step is added, so both operations run in amortized constant time.
+ * <p>
+ * Steps of equal value are ordered according to the TieBreaking of the frontier. Preferring the deepest steps
+ * drives the search to the goal as soon as the last layer of values is reached, instead of expanding most of it.
+ */
+public class BucketFrontier implements Frontier {
+
+    public enum TieBreaking {
+        /**
+         * The oldest step comes out first
+         */
+        FIFO,
+        /**
+         * The newest step comes out first
+         */
+        LIFO,
+        /**
+         * The step with the highest depth comes out first, the newest one among steps of equal depth
+         */
+        DEEPEST_FIRST
+    }
+
+    private static final int INITIAL_NUMBER_OF_BUCKETS = 64;
+
+    private final TieBreaking tieBreaking;
+
+    private Bucket[] buckets = new Bucket[INITIAL_NUMBER_OF_BUCKETS];
+    private int lowestBucket = INITIAL_NUMBER_OF_BUCKETS;
+    private int size = 0;
+
+    public BucketFrontier(TieBreaking tieBreaking) {
+        this.tieBreaking = tieBreaking;
+    }
+
+    @Override
+    public void add(SolutionStep step) {
+        int value = step.getHeuristicValue();
+        if (value < 0) {
+            throw new IllegalArgumentException("Bucket frontier cannot hold negative heuristic value " + value);
+        }
+        if (value >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(buckets.length * 2, value + 1));
+        }
+        if (buckets[value] == null) {
+            buckets[value] = new Bucket();
+        }
+        buckets[value].add(step);
+        if (value < lowestBucket) {
+            lowestBucket = value;
+        }
+        size++;
+    }
+
+    @Override
+    public SolutionStep poll() {
+        if (size == 0) {
+            return null;
+        }
+        while (buckets[lowestBucket] == null || buckets[lowestBucket].isEmpty()) {
+            lowestBucket++;
+        }
+        size--;
+        return buckets[lowestBucket].poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The steps of a single heuristic value. Unless we break ties by depth, all of them live in the first layer.
+     */
+    private class Bucket {
+        private ArrayDeque<SolutionStep>[] layers = newLayers(1);
+        private int highestLayer = 0;
+        private int size = 0;
+
+        void add(SolutionStep step) {
+            int layer = tieBreaking == TieBreaking.DEEPEST_FIRST ? step.depth() : 0;
+            if (layer >= layers.length) {
+                layers = Arrays.copyOf(layers, Math.max(layers.length * 2, layer + 1));
+            }
+            if (layers[layer] == null) {
+                layers[layer] = new ArrayDeque<>();
+            }
+            layers[layer].addLast(step);
+            if (layer > highestLayer) {
+                highestLayer = layer;
+            }
+            size++;
+        }
+
+        SolutionStep poll() {
+            while (layers[highestLayer] == null || layers[highestLayer].isEmpty()) {
+                highestLayer--;
+            }
+            size--;
+            return tieBreaking == TieBreaking.FIFO ? layers[highestLayer].pollFirst() : layers[highestLayer].pollLast();
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ArrayDeque<SolutionStep>[] newLayers(int length) {
+            return (ArrayDeque<SolutionStep>[]) new ArrayDeque<?>[length];
+        }
+    }
+}
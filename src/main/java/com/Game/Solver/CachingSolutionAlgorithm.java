@@ -0,0 +1,64 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+/**
+ * Looks a board up in a SolutionCache before solving it with another algorithm, and stores the solutions found.
+ * A board found in the cache is answered by replaying the moves stored, without any expansion.
+ * Only solutions are stored: a search stopped by its limits is tried again on the next call, even when it returned
+ * the best solution it had found so far, as ARA* does.
+ */
+public class CachingSolutionAlgorithm extends TaquinSolutionAlgorithm {
+
+    private final TaquinSolutionAlgorithm algorithm;
+    private final String solverName;
+    private final Heuristic heuristic;
+    private final SolutionCache cache;
+    private final boolean optimal;
+
+    /**
+     * @param algorithm  The algorithm solving the boards missing from the cache
+     * @param solverName The name of the algorithm and of its heuristic, separating their solutions from the others
+     * @param heuristic  The heuristic of the algorithm, to fill the heuristic values of the steps replayed
+     * @param optimal    Whether the algorithm finds optimal solutions, so that the boards along them are stored too
+     */
+    public CachingSolutionAlgorithm(TaquinSolutionAlgorithm algorithm, String solverName, Heuristic heuristic,
+                                    SolutionCache cache, boolean optimal) {
+        this.algorithm = algorithm;
+        this.solverName = solverName;
+        this.heuristic = heuristic;
+        this.cache = cache;
+        this.optimal = optimal;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        long startTime = System.nanoTime();
+        var moves = cache.get(solverName, initialState);
+        if (moves != null) {
+            var solutionSteps = replaySolution(initialState, heuristic, SolutionCache.directionsOf(moves));
+            long elapsedTime = System.nanoTime() - startTime;
+            return new TaquinSolutionHolder(solutionSteps, elapsedTime, 0, 0, false, false);
+        }
+
+        var solution = algorithm.solve(initialState, maxRuntime, maxFrontierSize);
+        boolean expired = solution.expiredRuntime() || solution.expiredFrontierSize();
+        if (!expired && solution.solutionSteps() != null && !solution.solutionSteps().isEmpty()) {
+            cache.put(solverName, initialState, SolutionCache.movesOf(solution.solutionSteps()), optimal);
+        }
+        return solution;
+    }
+
+    @Override
+    public void setSearchListener(SearchListener searchListener) {
+        super.setSearchListener(searchListener);
+        algorithm.setSearchListener(searchListener);
+    }
+
+    @Override
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        super.setCancellationToken(cancellationToken);
+        algorithm.setCancellationToken(cancellationToken);
+    }
+}
@@ -0,0 +1,19 @@
+package com.Game.Solver;
+
+/**
+ * Cooperative cancellation of a search, set on an algorithm with TaquinSolutionAlgorithm.setCancellationToken.
+ * The algorithms check it wherever they check their runtime budget, and give up as if the budget was spent, so a
+ * search cancelled from another thread returns TaquinSolutionHolder.getExpiredRuntime shortly after.
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
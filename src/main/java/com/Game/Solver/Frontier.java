@@ -0,0 +1,34 @@
+package com.Game.Solver;
+
+/**
+ * Abstraction of the frontier of a best-first search.
+ * The frontier always hands back the step with the lowest heuristic value, the order between steps of equal value
+ * being left to the implementation.
+ */
+public interface Frontier extends AutoCloseable {
+
+    void add(SolutionStep step);
+
+    /**
+     * @return The step with the lowest heuristic value, removed from the frontier, or null if the frontier is empty
+     */
+    SolutionStep poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    /**
+     * @return The number of steps held in memory, to which the frontier size limit of the solvers applies
+     */
+    default int sizeInMemory() {
+        return size();
+    }
+
+    /**
+     * Releases the resources held outside the memory, once the search is over
+     */
+    @Override
+    default void close() {
+    }
+}
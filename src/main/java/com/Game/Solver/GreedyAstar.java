@@ -5,8 +5,7 @@ import com.Game.Board.TaquinBoardDirection;
 import com.Game.Board.TaquinBoardState;
 import com.Game.Solver.Heuristic.Heuristic;
 
-import java.util.HashSet;
-import java.util.PriorityQueue;
+import java.util.function.Supplier;
 
 /**
  * A greedy version of A*.
@@ -18,10 +17,19 @@ public class GreedyAstar extends TaquinSolutionAlgorithm {
 
     private final boolean logProgress;
     private final Heuristic heuristic;
+    private final Supplier<Frontier> frontierSupplier;
 
     public GreedyAstar(Heuristic heuristic, boolean logProgress) {
+        this(heuristic, logProgress, HeapFrontier::new);
+    }
+
+    /**
+     * @param frontierSupplier Creates the frontier of each solve
+     */
+    public GreedyAstar(Heuristic heuristic, boolean logProgress, Supplier<Frontier> frontierSupplier) {
         this.heuristic = heuristic;
         this.logProgress = logProgress;
+        this.frontierSupplier = frontierSupplier;
     }
 
     @Override
@@ -31,83 +39,69 @@ public class GreedyAstar extends TaquinSolutionAlgorithm {
             return TaquinSolutionHolder.getEmpty();
         }
 
-        // The frontier, with capacity initialized to an arbitrary large value
-        var states = new PriorityQueue<SolutionStep>(1000);
-        var seenStates = new HashSet<SolutionStep>();
+        var states = frontierSupplier.get();
+        var seenStates = StateSet.forState(initialState);
 
         var initialStep = new SolutionStep(initialState, null, null, 0);
         states.add(initialStep);
-        seenStates.add(initialStep);
+        seenStates.add(initialStep.state());
 
         if (logProgress) {
             System.out.println("Start Solve!");
         }
 
+        var listener = getSearchListener();
         var startTime = System.nanoTime();
         var numExpansions = 0;
         var frontierSize = 0;
 
-        while (!states.isEmpty()) {
-            var currentState = states.poll();
+        try (states) {
+            while (!states.isEmpty()) {
+                var currentState = states.poll();
+                // the heuristic value of the steps is the estimate alone
+                listener.nodeExpanded(currentState.depth(), currentState.getHeuristicValue());
 
-            if (logProgress) {
-                System.out.println("evaluating current state");
-                System.out.println(currentState.state());
-            }
-
-            if (currentState.state().isGoalState()) {
-                var solutionSteps = unwindSolutionTree(currentState);
-                var elapsedTime = System.nanoTime() - startTime;
-                return new TaquinSolutionHolder(solutionSteps, elapsedTime, frontierSize, numExpansions, false, false);
-            }
-
-            // We generate the possible successor states that occur when we pass ACTION into the Transition Function
-            for (TaquinBoardDirection direction : TaquinBoardDirection.values()) {
-                // We check if this ACTION is valid to prevent unnecessary creation of states
-                if (!currentState.state().targetHasNeighbor(direction, currentState.state().getEmptyPosition())) {
-                    continue;
-                }
-                if (logProgress) {
-                    System.out.println("Generating new state from direction: " + direction);
+                if (currentState.state().isGoalState()) {
+                    var solutionSteps = unwindSolutionTree(currentState);
+                    var elapsedTime = System.nanoTime() - startTime;
+                    return new TaquinSolutionHolder(solutionSteps, elapsedTime, frontierSize, numExpansions, false, false);
                 }
-                // Copy the current state to a new object
-                var newBoardState = currentState.state().copy();
-                var emptyPosition = newBoardState.getEmptyPosition();
-                var instruction = TaquinBoardAction.mapFromDirection(direction);
-                // Run the transition function, producing a new state
-                newBoardState.processAction(instruction, emptyPosition);
-                if (logProgress) {
-                    System.out.println("Instruction: " + direction);
-                    System.out.println(newBoardState);
-                }
-
-                var newDistance = currentState.depth() + 1;
-                var solutionStep = new SolutionStep(newBoardState, currentState, instruction, newDistance);
-                solutionStep.setHeuristicValue(heuristic.getResult(solutionStep) - solutionStep.depth()); // We remove the depth to only consider "better" nodes.
 
-                // Totally new node, just add it to the queue
-                if (!seenStates.contains(solutionStep)) {
-                    seenStates.add(solutionStep);
-                    states.add(solutionStep);
+                // We generate the possible successor states that occur when we pass ACTION into the Transition Function
+                // Only the valid ACTIONS are looked up, to prevent unnecessary creation of states
+                for (TaquinBoardDirection direction : currentState.state().getLegalMoves()) {
+                    // Copy the current state to a new object
+                    var newBoardState = currentState.state().copy();
+                    var instruction = TaquinBoardAction.mapFromDirection(direction);
+                    // Run the transition function, producing a new state
+                    newBoardState.moveEmpty(direction);
+
+                    var newDistance = currentState.depth() + 1;
+                    var solutionStep = new SolutionStep(newBoardState, currentState, instruction, newDistance);
+                    solutionStep.setHeuristicValue(heuristic.getResult(solutionStep) - solutionStep.depth()); // We remove the depth to only consider "better" nodes.
+
+                    // Totally new node, just add it to the queue
+                    boolean isNew = seenStates.add(newBoardState);
+                    if (isNew) {
+                        states.add(solutionStep);
+                    }
+                    listener.nodeGenerated(!isNew);
                 }
-            }
-
-            numExpansions++;
 
-            if (states.size() % 10000 == 0) {
-                System.out.println("Frontier is now at: " + states.size());
-            }
+                numExpansions++;
+                listener.frontierSize(states.size());
 
-            if (states.size() > frontierSize) {
-                frontierSize = states.size();
-            }
+                if (states.size() > frontierSize) {
+                    frontierSize = states.size();
+                }
             
-            if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
-                return TaquinSolutionHolder.getExpiredFrontierSize();
-            }
+                if (maxFrontierSize > 0 && states.sizeInMemory() > maxFrontierSize) {
+                    return TaquinSolutionHolder.getExpiredFrontierSize();
+                }
 
-            if (maxRuntime > 0 && System.nanoTime() - startTime > maxRuntime) {
-                return TaquinSolutionHolder.getExpiredRuntime();
+                if (runtimeExpired(startTime, maxRuntime)) {
+                    return TaquinSolutionHolder.getExpiredRuntime();
+                }
             }
         }
 
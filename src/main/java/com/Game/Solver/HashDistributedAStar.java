@@ -0,0 +1,369 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A* (HDA*), running A* on several threads.
+ * Each state is owned by a single thread, chosen by hashing the state, and each thread keeps the frontier and the
+ * depths of the states it owns. A thread expands its own best step and sends the children it does not own to their
+ * owner, in batches through lock-free mailboxes, so the threads never wait on each other.
+ * <p>
+ * Since the threads do not expand the steps in the global order of A*, the first goal reached is not necessarily the
+ * best one. Reaching a goal sets an incumbent solution, the steps which cannot improve it are pruned, and a state
+ * reached again with a lower depth is expanded again. The search ends once every thread has run out of steps
+ * better than the incumbent and no batch is in transit, so the incumbent is then an optimal solution.
+ */
+public class HashDistributedAStar extends TaquinSolutionAlgorithm {
+
+    /**
+     * Number of children buffered for a thread before sending them
+     */
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * Number of expansions between two sends of all the buffered children, and between two checks of the limits
+     */
+    private static final int FLUSH_INTERVAL = 256;
+
+    private static final long IDLE_PARK_NANOS = 20_000;
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+    private final int threads;
+
+    public HashDistributedAStar(Heuristic heuristic, boolean logProgress) {
+        this(heuristic, logProgress, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param heuristic The heuristic, which must be safe to use from several threads
+     * @param threads   The number of threads of the search
+     */
+    public HashDistributedAStar(Heuristic heuristic, boolean logProgress, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive, got " + threads);
+        }
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+        this.threads = threads;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var search = new Search(initialState, maxRuntime, maxFrontierSize);
+        var initialStep = new SolutionStep(initialState, null, null, 0);
+        initialStep.setHeuristicValue(heuristic.getResult(initialStep));
+        search.send(search.ownerOf(initialState), List.of(initialStep));
+
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (var worker : search.workers) {
+                tasks.add(() -> {
+                    try {
+                        worker.run();
+                    } catch (Throwable e) { // the other threads would otherwise wait for this one forever
+                        search.terminated = true;
+                        throw e;
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return TaquinSolutionHolder.getEmpty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OutOfMemoryError error) {
+                throw error;
+            }
+            throw new IllegalStateException("A search thread failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (search.expiredRuntime) {
+            return TaquinSolutionHolder.getExpiredRuntime();
+        }
+        if (search.expiredFrontierSize) {
+            return TaquinSolutionHolder.getExpiredFrontierSize();
+        }
+        var goal = search.bestGoal.get();
+        if (goal == null) { // Should not happen since at this point all instance are solvable
+            return TaquinSolutionHolder.getEmpty();
+        }
+        long elapsedTime = System.nanoTime() - search.startTime;
+        long numExpansions = 0;
+        long frontierSize = 0;
+        for (var worker : search.workers) {
+            numExpansions += worker.numExpansions;
+            frontierSize += worker.maxFrontierSize;
+        }
+        if (logProgress) System.out.println("Solution length : " + goal.depth());
+        return new TaquinSolutionHolder(unwindSolutionTree(goal), elapsedTime, frontierSize, numExpansions,
+                false, false);
+    }
+
+    /**
+     * The state shared by the threads of a solve
+     */
+    private class Search {
+
+        private final long startTime = System.nanoTime();
+        private final long maxRuntime;
+        private final long maxFrontierSize;
+        private final Worker[] workers;
+        private final SearchListener listener = getSearchListener();
+
+        /**
+         * Depth of the best goal reached, Integer.MAX_VALUE until one is reached
+         */
+        private final AtomicInteger incumbent = new AtomicInteger(Integer.MAX_VALUE);
+        private final AtomicReference<SolutionStep> bestGoal = new AtomicReference<>();
+
+        /*
+         * Termination detection: a thread is idle when it has nothing better than the incumbent to expand. It only
+         * sends steps while active, and becomes active, counting an activation, before taking steps out of its
+         * mailbox. So if no activation happened while we saw every thread idle and no step in transit, no step can
+         * be sent anymore.
+         */
+        private final AtomicInteger idleWorkers;
+        private final AtomicLong activations = new AtomicLong();
+        private final AtomicLong stepsInTransit = new AtomicLong();
+
+        private volatile boolean terminated;
+        private volatile boolean expiredRuntime;
+        private volatile boolean expiredFrontierSize;
+
+        Search(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+            this.maxRuntime = maxRuntime;
+            this.maxFrontierSize = maxFrontierSize;
+            this.workers = new Worker[threads];
+            for (int i = 0; i < threads; i++) {
+                workers[i] = new Worker(this, i, StateMap.forState(initialState));
+            }
+            this.idleWorkers = new AtomicInteger(threads);
+        }
+
+        int ownerOf(TaquinBoardState state) {
+            // mix the hash again, the hash of some boards is not spread over its bits
+            long mixed = state.hashCode() * 0x9E3779B97F4A7C15L;
+            return (int) ((mixed >>> 32) % threads);
+        }
+
+        void send(int owner, List<SolutionStep> batch) {
+            stepsInTransit.addAndGet(batch.size());
+            workers[owner].mailbox.add(batch);
+        }
+
+        void offerGoal(SolutionStep goal) {
+            int current = incumbent.get();
+            while (goal.depth() < current) {
+                if (incumbent.compareAndSet(current, goal.depth())) {
+                    bestGoal.set(goal);
+                    if (logProgress) System.out.println("Incumbent : " + goal.depth());
+                    return;
+                }
+                current = incumbent.get();
+            }
+        }
+
+        boolean detectTermination() {
+            long before = activations.get();
+            if (idleWorkers.get() == threads && stepsInTransit.get() == 0 && activations.get() == before) {
+                terminated = true;
+            }
+            return terminated;
+        }
+
+        void checkLimits() {
+            if (runtimeExpired(startTime, maxRuntime)) {
+                expiredRuntime = true;
+                terminated = true;
+            }
+            long frontierSize = 0;
+            for (var worker : workers) {
+                frontierSize += worker.frontierSize;
+            }
+            listener.frontierSize(frontierSize);
+            if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
+                expiredFrontierSize = true;
+                terminated = true;
+            }
+        }
+    }
+
+    /**
+     * A thread of the search, with the frontier and the depths of the states it owns
+     */
+    private class Worker {
+
+        private final Search search;
+        private final int index;
+        private final ConcurrentLinkedQueue<List<SolutionStep>> mailbox = new ConcurrentLinkedQueue<>();
+        private final List<List<SolutionStep>> outgoing = new ArrayList<>();
+
+        /**
+         * Lowest depth each owned state was reached with
+         */
+        private final StateMap depths;
+
+        private Frontier frontier = new HeapFrontier();
+        private boolean idle = true;
+
+        private volatile int frontierSize;
+        private long maxFrontierSize;
+        private long numExpansions;
+
+        Worker(Search search, int index, StateMap depths) {
+            this.search = search;
+            this.index = index;
+            this.depths = depths;
+            for (int i = 0; i < threads; i++) {
+                outgoing.add(new ArrayList<>(BATCH_SIZE));
+            }
+        }
+
+        void run() {
+            while (!search.terminated) {
+                receive();
+
+                var step = frontier.poll();
+                if (step != null && step.getHeuristicValue() >= search.incumbent.get()) {
+                    // steps come out by increasing value, none of the others can improve the incumbent either
+                    frontier = new HeapFrontier();
+                    step = null;
+                }
+                if (step == null) {
+                    flush();
+                    frontierSize = 0;
+                    if (!idle) {
+                        idle = true;
+                        search.idleWorkers.incrementAndGet();
+                    }
+                    if (mailbox.isEmpty() && !search.detectTermination()) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                    continue;
+                }
+                if (step.depth() > depthOf(step.state())) { // the state was reached again with a lower depth
+                    continue;
+                }
+
+                search.listener.nodeExpanded(step.depth(), step.getHeuristicValue() - step.depth());
+                expand(step);
+                numExpansions++;
+                frontierSize = frontier.size();
+                if (frontierSize > maxFrontierSize) {
+                    maxFrontierSize = frontierSize;
+                }
+                if (numExpansions % FLUSH_INTERVAL == 0) {
+                    flush();
+                    search.checkLimits();
+                }
+            }
+        }
+
+        private void receive() {
+            List<SolutionStep> batch;
+            while ((batch = mailbox.poll()) != null) {
+                if (idle) {
+                    idle = false;
+                    search.activations.incrementAndGet();
+                    search.idleWorkers.decrementAndGet();
+                }
+                for (var step : batch) {
+                    offer(step);
+                }
+                search.stepsInTransit.addAndGet(-batch.size());
+            }
+        }
+
+        /**
+         * Adds a step of an owned state to the frontier, unless the state was already reached with a lower depth
+         */
+        private void offer(SolutionStep step) {
+            if (step.getHeuristicValue() >= search.incumbent.get()) {
+                return;
+            }
+            var state = step.state();
+            boolean duplicate = step.depth() >= depthOf(state);
+            search.listener.nodeGenerated(duplicate);
+            if (duplicate) {
+                return;
+            }
+            depths.put(state, step.depth());
+            if (state.isGoalState()) {
+                search.offerGoal(step);
+                return;
+            }
+            frontier.add(step);
+        }
+
+        private int depthOf(TaquinBoardState state) {
+            int depth = depths.get(state);
+            return depth == StateMap.MISSING ? Integer.MAX_VALUE : depth;
+        }
+
+        private void expand(SolutionStep step) {
+            var state = step.state();
+            for (TaquinBoardDirection direction : state.getLegalMoves()) {
+                var instruction = TaquinBoardAction.mapFromDirection(direction);
+                if (step.instruction() == TaquinBoardAction.mapFromDirection(direction.mapFromOpposite())) {
+                    continue; // undoing the previous move
+                }
+                var newBoardState = state.copy();
+                newBoardState.moveEmpty(direction);
+                var child = new SolutionStep(newBoardState, step, instruction, step.depth() + 1);
+                child.setHeuristicValue(heuristic.getResult(child));
+
+                int owner = search.ownerOf(newBoardState);
+                if (owner == index) {
+                    offer(child);
+                    continue;
+                }
+                var buffer = outgoing.get(owner);
+                buffer.add(child);
+                if (buffer.size() >= BATCH_SIZE) {
+                    search.send(owner, buffer);
+                    outgoing.set(owner, new ArrayList<>(BATCH_SIZE));
+                }
+            }
+        }
+
+        private void flush() {
+            for (int owner = 0; owner < threads; owner++) {
+                var buffer = outgoing.get(owner);
+                if (!buffer.isEmpty()) {
+                    search.send(owner, buffer);
+                    outgoing.set(owner, new ArrayList<>(BATCH_SIZE));
+                }
+            }
+        }
+    }
+}
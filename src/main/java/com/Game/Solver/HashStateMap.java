@@ -0,0 +1,36 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+import java.util.HashMap;
+
+/**
+ * StateMap relying on the Java standard library HashMap, for the boards too large to be encoded in a long.
+ * Every entry keeps the whole board object alive.
+ */
+public class HashStateMap implements StateMap {
+
+    private final HashMap<TaquinBoardState, Integer> values = new HashMap<>();
+
+    @Override
+    public int get(TaquinBoardState state) {
+        return values.getOrDefault(state, MISSING);
+    }
+
+    @Override
+    public int put(TaquinBoardState state, int value) {
+        var previous = values.put(state, value);
+        return previous == null ? MISSING : previous;
+    }
+
+    @Override
+    public int remove(TaquinBoardState state) {
+        var previous = values.remove(state);
+        return previous == null ? MISSING : previous;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+import java.util.HashSet;
+
+/**
+ * StateSet relying on the Java standard library HashSet, for the boards too large to be encoded in a long.
+ * Every entry keeps the whole board object alive.
+ */
+public class HashStateSet implements StateSet {
+
+    private final HashSet<TaquinBoardState> states = new HashSet<>();
+
+    @Override
+    public boolean add(TaquinBoardState state) {
+        return states.add(state);
+    }
+
+    @Override
+    public boolean contains(TaquinBoardState state) {
+        return states.contains(state);
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,33 @@
+package com.Game.Solver;
+
+import java.util.PriorityQueue;
+
+/**
+ * Frontier relying on the Java standard library PriorityQueue.
+ * Insertion and removal are done in Log(n) time and steps of equal heuristic value come out in no particular order.
+ */
+public class HeapFrontier implements Frontier {
+
+    // The capacity is initialized to an arbitrary large value
+    private final PriorityQueue<SolutionStep> steps = new PriorityQueue<>(1000);
+
+    @Override
+    public void add(SolutionStep step) {
+        steps.add(step);
+    }
+
+    @Override
+    public SolutionStep poll() {
+        return steps.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return steps.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return steps.size();
+    }
+}
@@ -8,8 +8,20 @@ public class DisplacedTilesHeuristic extends Heuristic {
 
     private final TargetBoardState targetBoardState;
 
+    /**
+     * The cells of the target, row by row
+     */
+    private final short[] targetCells;
+
     public DisplacedTilesHeuristic(TargetBoardState targetBoardState) {
         this.targetBoardState = targetBoardState;
+        int size = targetBoardState.getSize();
+        this.targetCells = new short[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                targetCells[y * size + x] = targetBoardState.getAtPosition(x, y);
+            }
+        }
     }
 
     @Override
@@ -30,4 +42,17 @@ public class DisplacedTilesHeuristic extends Heuristic {
         }
         return count + step.depth();
     }
+
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return new DisplacedTilesHeuristic(targetBoardState);
+    }
+
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        var movedCell = cells[to];
+        int before = targetCells[from] != movedCell ? 1 : 0;
+        int after = targetCells[to] != movedCell ? 1 : 0;
+        return after - before;
+    }
 }
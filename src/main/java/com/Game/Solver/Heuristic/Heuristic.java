@@ -1,5 +1,7 @@
 package com.Game.Solver.Heuristic;
 
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
 import com.Game.Solver.SolutionStep;
 
 /**
@@ -7,6 +9,9 @@ import com.Game.Solver.SolutionStep;
  * The Heuristics are implemented according to their formalization as:
  * DisplacedTilesHeuristic.java
  * ManhattanDistanceHeuristic.java
+ * <p>
+ * Besides evaluating SolutionSteps, a heuristic must be able to evaluate a single move on a flat array of cells, so
+ * that algorithms mutating one board in place never have to build states or steps.
  */
 public abstract class Heuristic {
     /**
@@ -14,4 +19,26 @@ public abstract class Heuristic {
      * @return The heuristic value of the state.
      */
     public abstract int getResult(SolutionStep step);
+
+    /**
+     * @param state A board state
+     * @return The estimated cost from the state to the goal, without any depth
+     */
+    public int getEstimate(TaquinBoardState state) {
+        return getResult(new SolutionStep(state, null, null, 0));
+    }
+
+    /**
+     * @param cells The cells of the board after the move, row by row, the empty cell holding EMPTY_ID
+     * @param from  The index the moved cell comes from, which now holds the empty cell
+     * @param to    The index the moved cell now lies at
+     * @return The difference between the estimate of the board after and before the move
+     */
+    public abstract int getMoveDelta(short[] cells, int from, int to);
+
+    /**
+     * @param targetBoardState Any board, for instance the initial board of a search running backward from the goal
+     * @return The same heuristic estimating the cost to that target instead
+     */
+    public abstract Heuristic forTarget(TargetBoardState targetBoardState);
 }
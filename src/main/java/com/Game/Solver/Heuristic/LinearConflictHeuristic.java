@@ -0,0 +1,204 @@
+package com.Game.Solver.Heuristic;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.CellUtilities;
+
+/**
+ * The Manhattan distance enhanced with linear conflicts.
+ * Two cells are in linear conflict when they are in their target row (or column) but in the reverse order: one of
+ * them has to leave the line to let the other pass, which costs two moves the Manhattan distance does not count.
+ * For each line, we add two moves per cell outside of the longest sequence of cells already in the right order,
+ * which keeps the heuristic admissible even when several cells conflict with each other.
+ * <p>
+ * The conflicts of a line only depend on the target position of its cells along the line, so they are precomputed
+ * for every such sequence, and evaluating a line costs a read per cell and a lookup.
+ * A vertical move only changes the rows holding the moved cell before and after the move, and a horizontal move
+ * only the columns, so a move is evaluated by looking at two lines instead of the whole board.
+ */
+public class LinearConflictHeuristic extends ManhattanDistanceHeuristic {
+
+    /**
+     * The table of conflicts holds (size + 1)^size entries, which becomes too large beyond this size
+     */
+    public static final int MAX_SIZE = 6;
+
+    private final int[] goalRow;
+    private final int[] goalColumn;
+
+    /**
+     * The line key of a sequence of cells has one digit in base size + 1 per cell: the target position of the cell
+     * along the line if the line is its target line, size otherwise. conflictTable[key] is the added cost of the line.
+     */
+    private final byte[] conflictTable;
+
+    public LinearConflictHeuristic(TargetBoardState targetBoardState) {
+        this(targetBoardState, false);
+    }
+
+    public LinearConflictHeuristic(TargetBoardState targetBoardState, boolean incremental) {
+        super(targetBoardState, incremental);
+        int size = getSize();
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("Linear conflict is not available for size " + size);
+        }
+        this.goalRow = new int[size * size];
+        this.goalColumn = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = targetBoardState.getAtPosition(x, y);
+                if (!CellUtilities.cellIsEmpty(cell)) {
+                    goalRow[cell] = y;
+                    goalColumn[cell] = x;
+                }
+            }
+        }
+        this.conflictTable = computeConflictTable(size);
+    }
+
+    @Override
+    public int getEstimate(TaquinBoardState state) {
+        int size = getSize();
+        int conflicts = 0;
+        for (int line = 0; line < size; line++) {
+            conflicts += conflictTable[rowKey(state, line, -1, -1)] + conflictTable[columnKey(state, line, -1, -1)];
+        }
+        return super.getEstimate(state) + conflicts;
+    }
+
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return new LinearConflictHeuristic(targetBoardState, isIncremental());
+    }
+
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        int size = getSize();
+        int conflictDelta;
+        if (from / size != to / size) { // vertical move, the rows of from and to change
+            conflictDelta = conflictTable[rowKey(cells, from / size, -1, -1)]
+                    + conflictTable[rowKey(cells, to / size, -1, -1)]
+                    - conflictTable[rowKey(cells, from / size, from, to)]
+                    - conflictTable[rowKey(cells, to / size, from, to)];
+        } else { // horizontal move, the columns of from and to change
+            conflictDelta = conflictTable[columnKey(cells, from % size, -1, -1)]
+                    + conflictTable[columnKey(cells, to % size, -1, -1)]
+                    - conflictTable[columnKey(cells, from % size, from, to)]
+                    - conflictTable[columnKey(cells, to % size, from, to)];
+        }
+        return super.getMoveDelta(cells, from, to) + conflictDelta;
+    }
+
+    @Override
+    protected int getMoveDelta(TaquinBoardState state, int from, int to) {
+        int size = getSize();
+        int conflictDelta;
+        if (from / size != to / size) {
+            conflictDelta = conflictTable[rowKey(state, from / size, -1, -1)]
+                    + conflictTable[rowKey(state, to / size, -1, -1)]
+                    - conflictTable[rowKey(state, from / size, from, to)]
+                    - conflictTable[rowKey(state, to / size, from, to)];
+        } else {
+            conflictDelta = conflictTable[columnKey(state, from % size, -1, -1)]
+                    + conflictTable[columnKey(state, to % size, -1, -1)]
+                    - conflictTable[columnKey(state, from % size, from, to)]
+                    - conflictTable[columnKey(state, to % size, from, to)];
+        }
+        return super.getMoveDelta(state, from, to) + conflictDelta;
+    }
+
+    /*
+     * The key methods read the cells as if the cells at the indices swapA and swapB were exchanged, which gives the
+     * lines of the board before a move without modifying it. Passing -1 reads the board as it is.
+     */
+
+    private int rowKey(short[] cells, int row, int swapA, int swapB) {
+        int size = getSize();
+        int key = 0;
+        for (int x = size - 1; x >= 0; x--) {
+            var cell = cells[swapped(row * size + x, swapA, swapB)];
+            key = key * (size + 1) + (!CellUtilities.cellIsEmpty(cell) && goalRow[cell] == row ? goalColumn[cell] : size);
+        }
+        return key;
+    }
+
+    private int columnKey(short[] cells, int column, int swapA, int swapB) {
+        int size = getSize();
+        int key = 0;
+        for (int y = size - 1; y >= 0; y--) {
+            var cell = cells[swapped(y * size + column, swapA, swapB)];
+            key = key * (size + 1) + (!CellUtilities.cellIsEmpty(cell) && goalColumn[cell] == column ? goalRow[cell] : size);
+        }
+        return key;
+    }
+
+    private int rowKey(TaquinBoardState state, int row, int swapA, int swapB) {
+        int size = getSize();
+        int key = 0;
+        for (int x = size - 1; x >= 0; x--) {
+            int index = swapped(row * size + x, swapA, swapB);
+            var cell = state.getAtPosition(index % size, index / size);
+            key = key * (size + 1) + (!CellUtilities.cellIsEmpty(cell) && goalRow[cell] == row ? goalColumn[cell] : size);
+        }
+        return key;
+    }
+
+    private int columnKey(TaquinBoardState state, int column, int swapA, int swapB) {
+        int size = getSize();
+        int key = 0;
+        for (int y = size - 1; y >= 0; y--) {
+            int index = swapped(y * size + column, swapA, swapB);
+            var cell = state.getAtPosition(index % size, index / size);
+            key = key * (size + 1) + (!CellUtilities.cellIsEmpty(cell) && goalColumn[cell] == column ? goalRow[cell] : size);
+        }
+        return key;
+    }
+
+    private static int swapped(int index, int swapA, int swapB) {
+        if (index == swapA) {
+            return swapB;
+        }
+        if (index == swapB) {
+            return swapA;
+        }
+        return index;
+    }
+
+    /**
+     * For every line key, twice the number of cells of the line outside of the longest increasing sequence of target
+     * positions, the cells that have to leave the line to let the others pass.
+     */
+    private static byte[] computeConflictTable(int size) {
+        int numberOfKeys = 1;
+        for (int i = 0; i < size; i++) {
+            numberOfKeys *= size + 1;
+        }
+        byte[] table = new byte[numberOfKeys];
+        int[] targets = new int[size];
+        int[] longestEndingAt = new int[size];
+        for (int key = 0; key < numberOfKeys; key++) {
+            int count = 0;
+            int remaining = key;
+            for (int i = 0; i < size; i++) {
+                int digit = remaining % (size + 1);
+                remaining /= size + 1;
+                if (digit < size) {
+                    targets[count++] = digit;
+                }
+            }
+
+            int longest = 0;
+            for (int i = 0; i < count; i++) {
+                longestEndingAt[i] = 1;
+                for (int j = 0; j < i; j++) {
+                    if (targets[j] < targets[i] && longestEndingAt[j] + 1 > longestEndingAt[i]) {
+                        longestEndingAt[i] = longestEndingAt[j] + 1;
+                    }
+                }
+                longest = Math.max(longest, longestEndingAt[i]);
+            }
+            table[key] = (byte) (2 * (count - longest));
+        }
+        return table;
+    }
+}
@@ -1,32 +1,134 @@
 package com.Game.Solver.Heuristic;
 
+import com.Game.Board.TaquinBoardState;
 import com.Game.Board.TargetBoardState;
 import com.Game.Cell.CellUtilities;
 import com.Game.Solver.SolutionStep;
 
+/**
+ * Sum over all cells of the distance between their position and their position in the target.
+ * The distance of every cell from every position is computed once in a table, so evaluating a cell is a lookup.
+ * In incremental mode, the value of a step is derived from the estimate stored in its parent: a single cell moved
+ * between the two, so only the distance of that cell changes and the evaluation is O(1).
+ */
 public class ManhattanDistanceHeuristic extends Heuristic {
 
-    private final TargetBoardState targetBoardState;
+    private final int size;
+
+    /**
+     * Distance of the cell of id n at the index y * size + x to its target, stored at n * size * size + index
+     */
+    private final int[] distanceTable;
+
+    private final boolean incremental;
 
     public ManhattanDistanceHeuristic(TargetBoardState targetBoardState) {
-        this.targetBoardState = targetBoardState;
+        this(targetBoardState, false);
+    }
+
+    public ManhattanDistanceHeuristic(TargetBoardState targetBoardState, boolean incremental) {
+        this.size = targetBoardState.getSize();
+        this.incremental = incremental;
+        int numberOfCells = size * size;
+        this.distanceTable = new int[numberOfCells * numberOfCells];
+        for (int targetY = 0; targetY < size; targetY++) {
+            for (int targetX = 0; targetX < size; targetX++) {
+                var id = targetBoardState.getAtPosition(targetX, targetY);
+                if (CellUtilities.cellIsEmpty(id)) {
+                    continue;
+                }
+                for (int y = 0; y < size; y++) {
+                    for (int x = 0; x < size; x++) {
+                        distanceTable[id * numberOfCells + y * size + x] = Math.abs(targetX - x) + Math.abs(targetY - y);
+                    }
+                }
+            }
+        }
     }
 
     @Override
     public int getResult(SolutionStep step) {
+        var parent = step.parentState();
+        int estimate;
+        if (incremental && parent != null && parent.getHeuristicEstimate() >= 0) {
+            estimate = parent.getHeuristicEstimate() + getStepDelta(step);
+        } else {
+            estimate = getEstimate(step.state());
+        }
+        step.setHeuristicEstimate(estimate);
+        return estimate + step.depth();
+    }
+
+    @Override
+    public int getEstimate(TaquinBoardState state) {
         int totalDistance = 0;
-        var state = step.state();
-        for (int y = 0; y < state.getSize(); y++) {
-            for (int x = 0; x < state.getSize(); x++) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
                 var evaluationCell = state.getAtPosition(x, y);
                 if (CellUtilities.cellIsEmpty(evaluationCell)) {
                     continue;
                 }
-                var targetPosition = targetBoardState.getPositionOfCell(evaluationCell);
-                totalDistance += Math.abs(targetPosition.getX() - x)
-                        + Math.abs(targetPosition.getY() - y);
+                totalDistance += getDistance(evaluationCell, y * size + x);
             }
         }
-        return totalDistance + step.depth();
+        return totalDistance;
+    }
+
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return new ManhattanDistanceHeuristic(targetBoardState, incremental);
+    }
+
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        var movedCell = cells[to];
+        return getDistance(movedCell, to) - getDistance(movedCell, from);
+    }
+
+    /**
+     * Same as getMoveDelta, reading the cells from a board state.
+     *
+     * @param state The board after the move
+     * @param from  The index the moved cell comes from, which now holds the empty cell
+     * @param to    The index the moved cell now lies at
+     * @return The difference between the estimate of the board after and before the move
+     */
+    protected int getMoveDelta(TaquinBoardState state, int from, int to) {
+        var movedCell = state.getAtPosition(to % size, to / size);
+        return getDistance(movedCell, to) - getDistance(movedCell, from);
+    }
+
+    /**
+     * @param id    The id of a non-empty cell
+     * @param index The index y * size + x of a position on the board
+     * @return The distance of the cell at that position to its target position
+     */
+    protected int getDistance(short id, int index) {
+        return distanceTable[id * size * size + index];
+    }
+
+    protected int getSize() {
+        return size;
+    }
+
+    protected boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * The instruction of the step moved the empty cell of the parent in its direction, so the moved cell now lies
+     * where the empty cell was, and comes from where the empty cell is.
+     *
+     * @return The difference between the estimate of the step and the estimate of its parent
+     */
+    private int getStepDelta(SolutionStep step) {
+        int emptyIndex = step.state().getEmptyIndex();
+        int previousEmptyIndex = switch (step.instruction()) {
+            case SWAP_UP -> emptyIndex + size;
+            case SWAP_RIGHT -> emptyIndex - 1;
+            case SWAP_DOWN -> emptyIndex - size;
+            case SWAP_LEFT -> emptyIndex + 1;
+        };
+        return getMoveDelta(step.state(), emptyIndex, previousEmptyIndex);
     }
 }
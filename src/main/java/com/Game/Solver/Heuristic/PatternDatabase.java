@@ -0,0 +1,220 @@
+package com.Game.Solver.Heuristic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A pattern database: for a subset of the cells (the pattern), the minimal number of moves of those cells needed to
+ * bring them to their target position, whatever the position of the other cells.
+ * The database is indexed by the rank of the positions of the pattern cells, see rank().
+ * <p>
+ * The tables are stored in files made of a header followed by one entry per rank:
+ * - the magic number MAGIC
+ * - the encoding of the entries, BYTE_ENCODING for one byte per entry or NIBBLE_ENCODING for 4 bits per entry
+ * - the size of the board
+ * - the number of cells of the pattern, followed by their ids
+ * - with NIBBLE_ENCODING, the target index of each cell of the pattern
+ * All header values are big endian ints.
+ * <p>
+ * A byte entry is the distance itself. A nibble entry is half the distance minus the Manhattan distance of the pattern
+ * cells, which is always even since every move of a cell changes the parity of its distance to its target. Nibbles
+ * are packed two per byte, the entry of an even rank in the low bits, and saturate at 15, which only lowers the
+ * distances of the rare entries above and keeps the databases admissible.
+ * The entries are memory mapped rather than read, so loading a database costs nothing and processes using the same
+ * file share its pages through the page cache.
+ */
+public class PatternDatabase {
+
+    public static final int MAGIC = 0x54504442; // "TPDB"
+    public static final int BYTE_ENCODING = 1;
+    public static final int NIBBLE_ENCODING = 2;
+    public static final int MAX_NIBBLE = 0xF;
+
+    /**
+     * Number of bits used by a position when the positions of a pattern are packed in a long
+     */
+    public static final int POSITION_BITS = 6;
+    public static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+    private final int size;
+    private final short[] pattern;
+    private final ByteBuffer entries;
+
+    /**
+     * The target coordinates of the cells of the pattern, only used by NIBBLE_ENCODING, null otherwise
+     */
+    private final int[] targetX;
+    private final int[] targetY;
+
+    private PatternDatabase(int size, short[] pattern, ByteBuffer entries, int[] targetIndexes) {
+        this.size = size;
+        this.pattern = pattern;
+        this.entries = entries;
+        if (targetIndexes == null) {
+            targetX = null;
+            targetY = null;
+        } else {
+            targetX = new int[pattern.length];
+            targetY = new int[pattern.length];
+            for (int i = 0; i < pattern.length; i++) {
+                targetX[i] = targetIndexes[i] % size;
+                targetY[i] = targetIndexes[i] / size;
+            }
+        }
+    }
+
+    /**
+     * Maps a database file in memory.
+     *
+     * @param file A file written by PatternDatabaseGenerator
+     * @return The database of the file
+     * @throws IOException if the file cannot be read or is not a pattern database
+     */
+    public static PatternDatabase load(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(4 * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < 4 * Integer.BYTES || header.getInt() != MAGIC) {
+                throw new IOException(file + " is not a pattern database");
+            }
+            int encoding = header.getInt();
+            int size = header.getInt();
+            int patternLength = header.getInt();
+            if (encoding != BYTE_ENCODING && encoding != NIBBLE_ENCODING) {
+                throw new IOException(file + " uses the unknown encoding " + encoding);
+            }
+
+            int cellValues = encoding == NIBBLE_ENCODING ? 2 * patternLength : patternLength;
+            var tiles = ByteBuffer.allocate(cellValues * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+            channel.read(tiles, 4L * Integer.BYTES);
+            tiles.flip();
+            short[] pattern = new short[patternLength];
+            for (int i = 0; i < patternLength; i++) {
+                pattern[i] = (short) tiles.getInt();
+            }
+            int[] targetIndexes = null;
+            if (encoding == NIBBLE_ENCODING) {
+                targetIndexes = new int[patternLength];
+                for (int i = 0; i < patternLength; i++) {
+                    targetIndexes[i] = tiles.getInt();
+                }
+            }
+
+            long headerLength = headerLength(encoding, patternLength);
+            long numberOfEntries = entriesLength(encoding, numberOfRanks(size * size, patternLength));
+            if (channel.size() < headerLength + numberOfEntries) {
+                throw new IOException(file + " is truncated");
+            }
+            MappedByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, headerLength, numberOfEntries);
+            return new PatternDatabase(size, pattern, entries, targetIndexes);
+        }
+    }
+
+    /**
+     * @return The ids of the cells of the pattern
+     */
+    public short[] getPattern() {
+        return pattern;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param positions The index y * size + x of each cell of the pattern, in the order of the pattern, packed in a
+     *                  long with POSITION_BITS bits per cell
+     * @return The number of moves of the pattern cells needed to bring them to their target
+     */
+    public int getDistance(long positions) {
+        int numberOfPositions = size * size;
+        long rank = 0;
+        long used = 0;
+        int manhattanDistance = 0;
+        for (int i = 0; i < pattern.length; i++) {
+            int position = (int) (positions >>> (POSITION_BITS * i) & POSITION_MASK);
+            int digit = position - Long.bitCount(used & ((1L << position) - 1));
+            rank = rank * (numberOfPositions - i) + digit;
+            used |= 1L << position;
+            if (targetX != null) {
+                manhattanDistance += Math.abs(position % size - targetX[i]) + Math.abs(position / size - targetY[i]);
+            }
+        }
+        if (targetX == null) {
+            return entries.get((int) rank) & 0xFF;
+        }
+        int packed = entries.get((int) (rank >>> 1)) & 0xFF;
+        return manhattanDistance + 2 * ((rank & 1) == 0 ? packed & MAX_NIBBLE : packed >>> 4);
+    }
+
+    /**
+     * Ranks a sequence of distinct positions among all sequences of the same length, in lexicographic order.
+     * Each position is replaced by the number of smaller positions not used before it, which gives digits in a
+     * mixed radix of base numberOfPositions, numberOfPositions - 1...
+     *
+     * @param positions         The positions, distinct and lower than numberOfPositions
+     * @param length            The number of positions to rank
+     * @param numberOfPositions The number of cells of the board, at most 64
+     * @return A rank between 0 and numberOfRanks(numberOfPositions, length) excluded
+     */
+    public static long rank(int[] positions, int length, int numberOfPositions) {
+        long rank = 0;
+        long used = 0;
+        for (int i = 0; i < length; i++) {
+            int position = positions[i];
+            int digit = position - Long.bitCount(used & ((1L << position) - 1));
+            rank = rank * (numberOfPositions - i) + digit;
+            used |= 1L << position;
+        }
+        return rank;
+    }
+
+    /**
+     * Inverse of rank().
+     */
+    public static void unrank(long rank, int[] positions, int length, int numberOfPositions) {
+        for (int i = length - 1; i >= 0; i--) {
+            int base = numberOfPositions - i;
+            positions[i] = (int) (rank % base);
+            rank /= base;
+        }
+        long used = 0;
+        for (int i = 0; i < length; i++) {
+            // the position is the digit-th one not used yet
+            long free = ~used;
+            for (int skipped = 0; skipped < positions[i]; skipped++) {
+                free &= free - 1;
+            }
+            positions[i] = Long.numberOfTrailingZeros(free);
+            used |= 1L << positions[i];
+        }
+    }
+
+    /**
+     * @return The number of sequences of length distinct positions, numberOfPositions! / (numberOfPositions - length)!
+     */
+    public static long numberOfRanks(int numberOfPositions, int length) {
+        long count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= numberOfPositions - i;
+        }
+        return count;
+    }
+
+    static long headerLength(int encoding, int patternLength) {
+        return (4L + (encoding == NIBBLE_ENCODING ? 2 : 1) * patternLength) * Integer.BYTES;
+    }
+
+    /**
+     * @return The number of bytes of the entries of the ranks
+     */
+    static long entriesLength(int encoding, long numberOfRanks) {
+        return encoding == NIBBLE_ENCODING ? (numberOfRanks + 1) / 2 : numberOfRanks;
+    }
+}
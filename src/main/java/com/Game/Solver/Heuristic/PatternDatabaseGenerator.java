@@ -0,0 +1,391 @@
+package com.Game.Solver.Heuristic;
+
+import com.Game.Board.TargetBoardState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Builds pattern databases and writes them to disk in the format read by PatternDatabase.
+ * The database of a pattern is computed by a breadth-first search starting from the target, over abstract states
+ * made of the positions of the pattern cells and of the empty cell, the other cells being indistinguishable.
+ * Moving the empty cell onto another cell costs nothing, only the moves of the pattern cells are counted, which is
+ * what makes the databases of disjoint patterns additive. The value of a pattern is finally the minimum over all
+ * the positions of the empty cell.
+ * <p>
+ * The abstract states are only ever handled as their rank, see PatternDatabase.rank. The search keeps one bit per
+ * state in each of its sets (visited, the layer being expanded, the states it reaches for free and the next layer),
+ * and each layer is expanded by several threads, each scanning its own range of the sets. The minimum over the
+ * positions of the empty cell is kept as it goes, in the NIBBLE_ENCODING of the file, so the 8-7 partition of the 4x4
+ * board takes about 2.3 GB for the search of the 8 cells and writes files of 29 and 260 MB.
+ * <p>
+ * Usage: PatternDatabaseGenerator outputDirectory [size] [--threads n] [--large], generating the default partition of
+ * the given size, or its large partition with --large.
+ */
+public class PatternDatabaseGenerator {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The number of words of the sets scanned by a thread at a time
+     */
+    private static final int CHUNK_WORDS = 1 << 10;
+
+    private final TargetBoardState targetBoardState;
+    private final int size;
+    private final int threads;
+    private final BooleanSupplier stopCondition;
+
+    /**
+     * neighbors[index] holds the indices adjacent to index
+     */
+    private final int[][] neighbors;
+
+    public PatternDatabaseGenerator(TargetBoardState targetBoardState) {
+        this(targetBoardState, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads The number of threads expanding each layer of the searches
+     */
+    public PatternDatabaseGenerator(TargetBoardState targetBoardState, int threads) {
+        this(targetBoardState, threads, () -> false);
+    }
+
+    /**
+     * @param threads       The number of threads expanding each layer of the searches
+     * @param stopCondition Checked regularly, the generation is abandoned as soon as it returns true
+     */
+    public PatternDatabaseGenerator(TargetBoardState targetBoardState, int threads, BooleanSupplier stopCondition) {
+        this.targetBoardState = targetBoardState;
+        this.size = targetBoardState.getSize();
+        this.threads = threads;
+        this.stopCondition = stopCondition;
+        if (size * size > Long.SIZE) {
+            throw new IllegalArgumentException("Pattern databases are limited to boards of 64 cells");
+        }
+        this.neighbors = new int[size * size][];
+        for (int index = 0; index < size * size; index++) {
+            neighbors[index] = neighborsOf(index);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        var arguments = new ArrayList<String>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean large = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--large" -> large = true;
+                default -> arguments.add(args[i]);
+            }
+        }
+        if (arguments.isEmpty()) {
+            System.out.println("Usage: PatternDatabaseGenerator outputDirectory [size] [--threads n] [--large]");
+            return;
+        }
+        var directory = Path.of(arguments.get(0));
+        int size = arguments.size() > 1 ? Integer.parseInt(arguments.get(1)) : 4;
+        var generator = new PatternDatabaseGenerator(new TargetBoardState(size), threads);
+        Files.createDirectories(directory);
+        var partition = large ? PatternDatabaseHeuristic.largePartition(size) :
+                PatternDatabaseHeuristic.defaultPartition(size);
+        for (short[] pattern : partition) {
+            var file = PatternDatabaseHeuristic.fileOf(directory, size, pattern);
+            System.out.println("Generating " + file + " with " + threads + " threads");
+            long startTime = System.nanoTime();
+            generator.generate(pattern, file);
+            System.out.println("Generated in " + (System.nanoTime() - startTime) / 1_000_000_000 + " s");
+        }
+    }
+
+    /**
+     * Computes the database of the pattern and writes it to the file.
+     * The file is first written next to its destination and then moved, so a reader never maps a partial file.
+     *
+     * @throws CancellationException if the stop condition was met, in which case nothing is written
+     */
+    public void generate(short[] pattern, Path file) throws IOException {
+        byte[] entries = computeEntries(pattern);
+        var temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            output.writeInt(PatternDatabase.MAGIC);
+            output.writeInt(PatternDatabase.NIBBLE_ENCODING);
+            output.writeInt(size);
+            output.writeInt(pattern.length);
+            for (short cell : pattern) {
+                output.writeInt(cell);
+            }
+            for (short cell : pattern) {
+                output.writeInt(targetIndexOf(cell));
+            }
+            output.write(entries);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The entry of every ranked position of the pattern cells, in the NIBBLE_ENCODING of PatternDatabase
+     * @throws CancellationException if the stop condition was met
+     */
+    public byte[] computeEntries(short[] pattern) {
+        var search = new Search(pattern);
+        var pool = new ForkJoinPool(threads);
+        try {
+            search.run(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+        return search.entriesAsBytes();
+    }
+
+    private int targetIndexOf(short cell) {
+        var target = targetBoardState.getPositionOfCell(cell);
+        return target.getY() * size + target.getX();
+    }
+
+    private int[] neighborsOf(int index) {
+        int x = index % size;
+        int y = index / size;
+        int[] neighbors = new int[4];
+        int count = 0;
+        if (y > 0) neighbors[count++] = index - size;
+        if (x < size - 1) neighbors[count++] = index + 1;
+        if (y < size - 1) neighbors[count++] = index + size;
+        if (x > 0) neighbors[count++] = index - 1;
+        return Arrays.copyOf(neighbors, count);
+    }
+
+    /**
+     * The breadth-first search of a pattern. An abstract state is ranked as the positions of the pattern cells
+     * followed by the position of the empty cell, so the rank of the pattern alone is the rank of the state divided by
+     * the number of positions left for the empty cell.
+     */
+    private final class Search {
+
+        private final int length;
+        private final int numberOfPositions;
+        private final int positionsOfEmpty;
+        private final long numberOfStates;
+        private final int[] start;
+
+        /**
+         * manhattanDistances[i][position] is the Manhattan distance of the i-th cell of the pattern at the position
+         */
+        private final int[][] manhattanDistances;
+
+        private long[] visited;
+        private long[] layer;
+        private long[] reachedForFree;
+        private long[] nextLayer;
+
+        /**
+         * The entries of the database, 16 nibbles per word, all at MAX_NIBBLE until their pattern is reached
+         */
+        private final long[] entries;
+
+        Search(short[] pattern) {
+            length = pattern.length;
+            numberOfPositions = size * size;
+            positionsOfEmpty = numberOfPositions - length;
+            numberOfStates = PatternDatabase.numberOfRanks(numberOfPositions, length + 1);
+            long numberOfWords = (numberOfStates + Long.SIZE - 1) / Long.SIZE;
+            long numberOfEntries = PatternDatabase.numberOfRanks(numberOfPositions, length);
+            if (numberOfWords > Integer.MAX_VALUE - 8 || numberOfEntries / 2 > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Pattern of " + length + " cells is too large for this generator");
+            }
+
+            start = new int[length + 1];
+            manhattanDistances = new int[length][numberOfPositions];
+            for (int i = 0; i < length; i++) {
+                int target = targetIndexOf(pattern[i]);
+                start[i] = target;
+                for (int position = 0; position < numberOfPositions; position++) {
+                    manhattanDistances[i][position] = Math.abs(position % size - target % size)
+                            + Math.abs(position / size - target / size);
+                }
+            }
+            var emptyTarget = targetBoardState.getEmptyPosition();
+            start[length] = emptyTarget.getY() * size + emptyTarget.getX();
+
+            visited = new long[(int) numberOfWords];
+            layer = new long[(int) numberOfWords];
+            reachedForFree = new long[(int) numberOfWords];
+            nextLayer = new long[(int) numberOfWords];
+            entries = new long[(int) ((numberOfEntries + 15) / 16)];
+            Arrays.fill(entries, -1L);
+        }
+
+        void run(ForkJoinPool pool) {
+            long startRank = PatternDatabase.rank(start, length + 1, numberOfPositions);
+            setBit(visited, startRank);
+            setBit(layer, startRank);
+            record(startRank, start, 0);
+
+            int chunks = (visited.length + CHUNK_WORDS - 1) / CHUNK_WORDS;
+            int distance = 0;
+            long layerSize = 1;
+            while (layerSize > 0) {
+                // expands the layer, then the states it reaches for free, until no new state is reached for free
+                var reached = new LongAdder();
+                do {
+                    reached.reset();
+                    int currentDistance = distance;
+                    pool.submit(() -> IntStream.range(0, chunks).parallel()
+                            .forEach(chunk -> expand(chunk, currentDistance, reached))).join();
+                    checkStopCondition();
+                    var swap = layer;
+                    layer = reachedForFree;
+                    reachedForFree = swap;
+                } while (reached.sum() > 0);
+
+                // the next layer is what the moves of the pattern reached, less what was reached for free since
+                var nextSize = new LongAdder();
+                pool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .forEach(chunk -> startLayer(chunk, nextSize))).join();
+                checkStopCondition();
+                layerSize = nextSize.sum();
+                distance++;
+            }
+        }
+
+        /**
+         * The chunks skipped once the stop condition is met leave the sets inconsistent, the search is then abandoned
+         */
+        private void checkStopCondition() {
+            if (stopCondition.getAsBoolean()) {
+                throw new CancellationException("Generation of the pattern database cancelled");
+            }
+        }
+
+        /**
+         * Expands the states of the layer in the chunk, clearing them from the layer
+         */
+        private void expand(int chunk, int distance, LongAdder reached) {
+            if (stopCondition.getAsBoolean()) {
+                return;
+            }
+            int[] positions = new int[length + 1];
+            int end = Math.min(layer.length, (chunk + 1) * CHUNK_WORDS);
+            for (int word = chunk * CHUNK_WORDS; word < end; word++) {
+                long bits = layer[word];
+                if (bits == 0) {
+                    continue;
+                }
+                layer[word] = 0;
+                while (bits != 0) {
+                    long state = (long) word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    PatternDatabase.unrank(state, positions, length + 1, numberOfPositions);
+                    int empty = positions[length];
+                    for (int neighbor : neighbors[empty]) {
+                        int moved = -1;
+                        for (int j = 0; j < length; j++) {
+                            if (positions[j] == neighbor) {
+                                moved = j;
+                            }
+                        }
+
+                        positions[length] = neighbor;
+                        if (moved >= 0) {
+                            positions[moved] = empty;
+                            long child = PatternDatabase.rank(positions, length + 1, numberOfPositions);
+                            if (!getBit(visited, child) && setBit(nextLayer, child)) {
+                                record(child, positions, distance + 1);
+                            }
+                            positions[moved] = neighbor;
+                        } else {
+                            long child = PatternDatabase.rank(positions, length + 1, numberOfPositions);
+                            if (setBit(visited, child)) {
+                                setBit(reachedForFree, child);
+                                record(child, positions, distance);
+                                reached.increment();
+                            }
+                        }
+                        positions[length] = empty;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Moves the states of the next layer in the chunk not visited yet to the layer, and marks them as visited
+         */
+        private void startLayer(int chunk, LongAdder layerSize) {
+            int end = Math.min(layer.length, (chunk + 1) * CHUNK_WORDS);
+            long count = 0;
+            for (int word = chunk * CHUNK_WORDS; word < end; word++) {
+                long bits = nextLayer[word] & ~visited[word];
+                visited[word] |= bits;
+                layer[word] = bits;
+                nextLayer[word] = 0;
+                count += Long.bitCount(bits);
+            }
+            layerSize.add(count);
+        }
+
+        /**
+         * Lowers the entry of the pattern of the state to the distance, if it is lower. The states of a layer are
+         * reached in increasing distance, so each entry ends up with the distance of the first state of its pattern.
+         */
+        private void record(long state, int[] positions, int distance) {
+            int manhattanDistance = 0;
+            for (int i = 0; i < length; i++) {
+                manhattanDistance += manhattanDistances[i][positions[i]];
+            }
+            long value = Math.min(PatternDatabase.MAX_NIBBLE, (distance - manhattanDistance) / 2);
+            long rank = state / positionsOfEmpty;
+            int index = (int) (rank >>> 4);
+            int shift = (int) (rank & 15) * 4;
+            long word = (long) WORDS.getVolatile(entries, index);
+            while ((word >>> shift & PatternDatabase.MAX_NIBBLE) > value) {
+                long updated = word & ~((long) PatternDatabase.MAX_NIBBLE << shift) | value << shift;
+                long witness = (long) WORDS.compareAndExchange(entries, index, word, updated);
+                if (witness == word) {
+                    return;
+                }
+                word = witness;
+            }
+        }
+
+        /**
+         * @return The entries as bytes, two nibbles per byte, the nibble of an even rank in the low bits
+         */
+        byte[] entriesAsBytes() {
+            long numberOfEntries = PatternDatabase.numberOfRanks(numberOfPositions, length);
+            byte[] bytes = new byte[(int) PatternDatabase.entriesLength(PatternDatabase.NIBBLE_ENCODING,
+                    numberOfEntries)];
+            for (int index = 0; index < bytes.length; index++) {
+                bytes[index] = (byte) (entries[index >>> 3] >>> (index & 7) * 8);
+            }
+            return bytes;
+        }
+
+        private static boolean getBit(long[] words, long bit) {
+            return ((long) WORDS.getOpaque(words, (int) (bit >>> 6)) & 1L << bit) != 0;
+        }
+
+        /**
+         * @return true if the bit was not set yet
+         */
+        private static boolean setBit(long[] words, long bit) {
+            long mask = 1L << bit;
+            long previous = (long) WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), mask);
+            return (previous & mask) == 0;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.Game.Solver.Heuristic;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.SolutionStep;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Additive disjoint pattern databases.
+ * The cells are split into disjoint patterns, each with its own PatternDatabase. A database only counts the moves of
+ * its own cells, so the sum of the databases never overestimates the number of moves and the heuristic is admissible.
+ * It is much stronger than the Manhattan distance since it accounts for the interactions between the cells of a
+ * pattern.
+ * <p>
+ * The databases are generated once by PatternDatabaseGenerator and memory mapped afterwards.
+ */
+public class PatternDatabaseHeuristic extends Heuristic {
+
+    private final int size;
+    private final PatternDatabase[] databases;
+
+    /**
+     * databaseOfCell[id] is the index of the database holding the cell, -1 if the cell is in no pattern
+     */
+    private final int[] databaseOfCell;
+
+    /**
+     * indexInPattern[id] is the index of the cell within its pattern
+     */
+    private final int[] indexInPattern;
+
+    public PatternDatabaseHeuristic(List<PatternDatabase> databases) {
+        if (databases.isEmpty()) {
+            throw new IllegalArgumentException("At least one pattern database is required");
+        }
+        this.size = databases.get(0).getSize();
+        this.databases = databases.toArray(new PatternDatabase[0]);
+        this.databaseOfCell = new int[size * size];
+        this.indexInPattern = new int[size * size];
+        Arrays.fill(databaseOfCell, -1);
+        for (int database = 0; database < this.databases.length; database++) {
+            if (this.databases[database].getSize() != size) {
+                throw new IllegalArgumentException("Pattern databases must all have the same board size");
+            }
+            var pattern = this.databases[database].getPattern();
+            for (int i = 0; i < pattern.length; i++) {
+                if (databaseOfCell[pattern[i]] >= 0) {
+                    throw new IllegalArgumentException("Cell " + pattern[i] + " belongs to more than one pattern");
+                }
+                databaseOfCell[pattern[i]] = database;
+                indexInPattern[pattern[i]] = i;
+            }
+        }
+    }
+
+    /**
+     * Loads the large partition of the target size from the directory when all its databases were generated, the
+     * default partition otherwise, generating its missing databases first.
+     *
+     * @param targetBoardState The target of the puzzle
+     * @param directory        The directory holding the database files
+     * @return The heuristic backed by the databases
+     * @throws IOException if a database cannot be written or read
+     */
+    public static PatternDatabaseHeuristic forTarget(TargetBoardState targetBoardState, Path directory)
+            throws IOException {
+        return forTarget(targetBoardState, directory, () -> false);
+    }
+
+    /**
+     * Same as forTarget, giving up on the generation of the missing databases once the stop condition is met
+     *
+     * @throws CancellationException if the stop condition was met while generating a database
+     */
+    public static PatternDatabaseHeuristic forTarget(TargetBoardState targetBoardState, Path directory,
+                                                     BooleanSupplier stopCondition) throws IOException {
+        int size = targetBoardState.getSize();
+        Files.createDirectories(directory);
+        PatternDatabaseGenerator generator = null;
+        var databases = new ArrayList<PatternDatabase>();
+        var partition = defaultPartition(size);
+        if (hasLargePartition(size) && Arrays.stream(largePartition(size))
+                .allMatch(pattern -> Files.exists(fileOf(directory, size, pattern)))) {
+            partition = largePartition(size);
+        }
+        for (short[] pattern : partition) {
+            var file = fileOf(directory, size, pattern);
+            if (!Files.exists(file)) {
+                if (generator == null) {
+                    generator = new PatternDatabaseGenerator(targetBoardState,
+                            Runtime.getRuntime().availableProcessors(), stopCondition);
+                }
+                generator.generate(pattern, file);
+            }
+            databases.add(PatternDatabase.load(file));
+        }
+        return new PatternDatabaseHeuristic(databases);
+    }
+
+    /**
+     * The usual partitions: 4-4 for the 3x3 board, 6-6-3 for the 4x4 board, built from columns and rows of the target.
+     *
+     * @param size The size of the board
+     * @return The patterns of the partition
+     */
+    public static short[][] defaultPartition(int size) {
+        return switch (size) {
+            case 3 -> new short[][]{{0, 1, 2, 3}, {4, 5, 6, 7}};
+            case 4 -> new short[][]{{0, 4, 5, 8, 9, 12}, {6, 7, 10, 11, 13, 14}, {1, 2, 3}};
+            default -> throw new IllegalArgumentException("No default pattern partition for size " + size);
+        };
+    }
+
+    /**
+     * The partitions too costly to generate on first use, built beforehand with PatternDatabaseGenerator --large:
+     * 8 for the 3x3 board, 8-7 for the 4x4 board, the first two rows and the other cells.
+     *
+     * @param size The size of the board
+     * @return The patterns of the partition
+     */
+    public static short[][] largePartition(int size) {
+        return switch (size) {
+            case 3 -> new short[][]{{0, 1, 2, 3, 4, 5, 6, 7}};
+            case 4 -> new short[][]{{0, 1, 2, 3, 4, 5, 6, 7}, {8, 9, 10, 11, 12, 13, 14}};
+            default -> throw new IllegalArgumentException("No large pattern partition for size " + size);
+        };
+    }
+
+    private static boolean hasLargePartition(int size) {
+        return size == 3 || size == 4;
+    }
+
+    /**
+     * @return The file of the database of the pattern in the directory
+     */
+    public static Path fileOf(Path directory, int size, short[] pattern) {
+        var name = new StringJoiner("-", "pdb-" + size + "x" + size + "-", ".bin");
+        for (short cell : pattern) {
+            name.add(String.valueOf(cell));
+        }
+        return directory.resolve(name.toString());
+    }
+
+    @Override
+    public int getResult(SolutionStep step) {
+        var estimate = getEstimate(step.state());
+        step.setHeuristicEstimate(estimate);
+        return estimate + step.depth();
+    }
+
+    @Override
+    public int getEstimate(TaquinBoardState state) {
+        long[] positions = new long[databases.length];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = state.getAtPosition(x, y);
+                if (CellUtilities.cellIsEmpty(cell) || databaseOfCell[cell] < 0) {
+                    continue;
+                }
+                int shift = PatternDatabase.POSITION_BITS * indexInPattern[cell];
+                positions[databaseOfCell[cell]] |= (long) (y * size + x) << shift;
+            }
+        }
+        int estimate = 0;
+        for (int database = 0; database < databases.length; database++) {
+            estimate += databases[database].getDistance(positions[database]);
+        }
+        return estimate;
+    }
+
+    /**
+     * The databases only hold the distances to the usual goal, and generating them for another target would cost
+     * far more than the search itself, so we fall back to the Manhattan distance.
+     */
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return new ManhattanDistanceHeuristic(targetBoardState, true);
+    }
+
+    /**
+     * Only the database holding the moved cell changes, so we only look up that one before and after the move.
+     */
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        var movedCell = cells[to];
+        int database = databaseOfCell[movedCell];
+        if (database < 0) {
+            return 0;
+        }
+        long after = 0;
+        for (int index = 0; index < cells.length; index++) {
+            var cell = cells[index];
+            if (!CellUtilities.cellIsEmpty(cell) && databaseOfCell[cell] == database) {
+                after |= (long) index << (PatternDatabase.POSITION_BITS * indexInPattern[cell]);
+            }
+        }
+        int shift = PatternDatabase.POSITION_BITS * indexInPattern[movedCell];
+        long before = after & ~(PatternDatabase.POSITION_MASK << shift) | (long) from << shift;
+        return databases[database].getDistance(after) - databases[database].getDistance(before);
+    }
+}
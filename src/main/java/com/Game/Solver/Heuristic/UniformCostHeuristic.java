@@ -1,5 +1,6 @@
 package com.Game.Solver.Heuristic;
 
+import com.Game.Board.TargetBoardState;
 import com.Game.Solver.SolutionStep;
 
 /**
@@ -12,4 +13,14 @@ public class UniformCostHeuristic extends Heuristic {
     public int getResult(SolutionStep step) {
         return step.depth();
     }
+
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        return 0;
+    }
+
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return this;
+    }
 }
@@ -0,0 +1,183 @@
+package com.Game.Solver.Heuristic;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Board.TargetBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.PackedStateMap;
+import com.Game.Solver.SolutionStep;
+
+import java.util.ArrayDeque;
+
+/**
+ * The walking distance heuristic.
+ * The board is abstracted by rows: for each row, we only keep how many of its cells belong to each target row, and
+ * the row of the empty cell. Every vertical move swaps a cell between the row of the empty cell and an adjacent
+ * row, and the minimal number of such moves to reach the abstraction of the target is computed once for all
+ * abstractions by a breadth-first search. The same is done for columns and horizontal moves, and since a move is
+ * either vertical or horizontal, the sum of both distances is admissible.
+ * <p>
+ * It dominates the Manhattan distance in most states, as it accounts for the cells of a row getting in the way of
+ * each other, while the tables only hold a few tens of thousands of entries for a 4x4 board.
+ * A move only changes the row abstraction or the column abstraction, so getMoveDelta only rebuilds that one, in a
+ * single pass over the cells, and looks up its distance before and after the move. The heuristic keeps no state
+ * between the moves of a search, so the abstraction is not updated incrementally.
+ */
+public class WalkingDistanceHeuristic extends Heuristic {
+
+    public static final int MAX_SIZE = 4;
+
+    /**
+     * Number of bits of each count of an abstraction packed in a long, then of the line of the empty cell
+     */
+    private static final int COUNT_BITS = 3;
+
+    private final int size;
+
+    /**
+     * goalRow[id] and goalColumn[id] give the target position of each cell
+     */
+    private final int[] goalRow;
+    private final int[] goalColumn;
+
+    private final PackedStateMap rowDistances;
+    private final PackedStateMap columnDistances;
+
+    public WalkingDistanceHeuristic(TargetBoardState targetBoardState) {
+        this.size = targetBoardState.getSize();
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Walking distance is not available for size " + size);
+        }
+        this.goalRow = new int[size * size];
+        this.goalColumn = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = targetBoardState.getAtPosition(x, y);
+                if (!CellUtilities.cellIsEmpty(cell)) {
+                    goalRow[cell] = y;
+                    goalColumn[cell] = x;
+                }
+            }
+        }
+
+        var emptyTarget = targetBoardState.getEmptyPosition();
+        this.rowDistances = computeDistances(emptyTarget.getY());
+        // Rows and columns share the same abstract space, only the line of the empty cell in the target matters
+        this.columnDistances = emptyTarget.getX() == emptyTarget.getY() ?
+                rowDistances : computeDistances(emptyTarget.getX());
+    }
+
+    @Override
+    public int getResult(SolutionStep step) {
+        var estimate = getEstimate(step.state());
+        step.setHeuristicEstimate(estimate);
+        return estimate + step.depth();
+    }
+
+    @Override
+    public int getEstimate(TaquinBoardState state) {
+        long rowKey = 0;
+        long columnKey = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = state.getAtPosition(x, y);
+                if (CellUtilities.cellIsEmpty(cell)) {
+                    rowKey |= (long) y << emptyShift();
+                    columnKey |= (long) x << emptyShift();
+                } else {
+                    rowKey += unit(y, goalRow[cell]);
+                    columnKey += unit(x, goalColumn[cell]);
+                }
+            }
+        }
+        return rowDistances.get(rowKey) + columnDistances.get(columnKey);
+    }
+
+    @Override
+    public Heuristic forTarget(TargetBoardState targetBoardState) {
+        return new WalkingDistanceHeuristic(targetBoardState);
+    }
+
+    @Override
+    public int getMoveDelta(short[] cells, int from, int to) {
+        var movedCell = cells[to];
+        long after = 0;
+        if (from / size != to / size) { // vertical move, only the rows change
+            for (int index = 0; index < cells.length; index++) {
+                after += CellUtilities.cellIsEmpty(cells[index]) ?
+                        (long) (index / size) << emptyShift() : unit(index / size, goalRow[cells[index]]);
+            }
+            long before = withEmptyLine(after - unit(to / size, goalRow[movedCell])
+                    + unit(from / size, goalRow[movedCell]), to / size);
+            return rowDistances.get(after) - rowDistances.get(before);
+        } else { // horizontal move, only the columns change
+            for (int index = 0; index < cells.length; index++) {
+                after += CellUtilities.cellIsEmpty(cells[index]) ?
+                        (long) (index % size) << emptyShift() : unit(index % size, goalColumn[cells[index]]);
+            }
+            long before = withEmptyLine(after - unit(to % size, goalColumn[movedCell])
+                    + unit(from % size, goalColumn[movedCell]), to % size);
+            return columnDistances.get(after) - columnDistances.get(before);
+        }
+    }
+
+    /**
+     * Breadth-first search over the abstractions, starting from the one of the target where each line only holds
+     * its own cells.
+     *
+     * @param emptyGoalLine The line of the empty cell in the target
+     * @return The distance of every abstraction to the target, keyed by the packed abstraction
+     */
+    private PackedStateMap computeDistances(int emptyGoalLine) {
+        var distances = new PackedStateMap(1 << 10, PackedStateMap.DEFAULT_LOAD_FACTOR);
+        long goal = withEmptyLine(0, emptyGoalLine);
+        for (int line = 0; line < size; line++) {
+            goal += (line == emptyGoalLine ? size - 1 : size) * unit(line, line);
+        }
+        distances.put(goal, 0);
+
+        var queue = new ArrayDeque<Long>();
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            long key = queue.poll();
+            int distance = distances.get(key);
+            int emptyLine = (int) (key >>> emptyShift());
+            for (int adjacentLine = emptyLine - 1; adjacentLine <= emptyLine + 1; adjacentLine += 2) {
+                if (adjacentLine < 0 || adjacentLine >= size) {
+                    continue;
+                }
+                // a cell of any target line may move from the adjacent line to the line of the empty cell
+                for (int targetLine = 0; targetLine < size; targetLine++) {
+                    if (count(key, adjacentLine, targetLine) == 0) {
+                        continue;
+                    }
+                    long child = withEmptyLine(key - unit(adjacentLine, targetLine) + unit(emptyLine, targetLine),
+                            adjacentLine);
+                    if (!distances.containsKey(child)) {
+                        distances.put(child, distance + 1);
+                        queue.add(child);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * @return The packed value adding one cell of the target line to the line
+     */
+    private long unit(int line, int targetLine) {
+        return 1L << (COUNT_BITS * (line * size + targetLine));
+    }
+
+    private int count(long key, int line, int targetLine) {
+        return (int) (key >>> (COUNT_BITS * (line * size + targetLine)) & ((1 << COUNT_BITS) - 1));
+    }
+
+    private int emptyShift() {
+        return COUNT_BITS * size * size;
+    }
+
+    private long withEmptyLine(long key, int emptyLine) {
+        return key & ~(-1L << emptyShift()) | (long) emptyLine << emptyShift();
+    }
+}
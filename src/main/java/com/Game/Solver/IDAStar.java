@@ -56,7 +56,7 @@ public class IDAStar extends TaquinSolutionAlgorithm {
             if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
                 return TaquinSolutionHolder.getExpiredFrontierSize();
             }
-            if (maxRuntime > 0 && System.nanoTime() - startTime > maxRuntime) {
+            if (runtimeExpired(startTime, maxRuntime)) {
                 return TaquinSolutionHolder.getExpiredRuntime();
             }
             if (this.logProgress) System.out.println("Bound : " + bound);
@@ -65,6 +65,10 @@ public class IDAStar extends TaquinSolutionAlgorithm {
                 var elapsedTime = System.nanoTime() - startTime;
                 return new TaquinSolutionHolder(pair.getValue(), elapsedTime, frontierSize, numExpansions, false, false);
             }
+            if (isCancelled()) { // the iteration was abandoned midway
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+            getSearchListener().iterationFinished(bound);
             if (pair.getKey() == Integer.MAX_VALUE) { // Should not happen since at this point all instance are solvable
                 return TaquinSolutionHolder.getEmpty();
             }
@@ -97,31 +101,35 @@ public class IDAStar extends TaquinSolutionAlgorithm {
             return new Pair<>(currentState.getHeuristicValue(), null);
         }
 
-        Integer min = Integer.MAX_VALUE; // the value to return as x
-        for (TaquinBoardDirection direction : TaquinBoardDirection.values()) { // creating a path per direction
+        if (isCancelled()) { // unwinding the tree, solve gives up once back at the root
+            return new Pair<>(Integer.MAX_VALUE, null);
+        }
 
-            if (!currentState.state().targetHasNeighbor(direction, currentState.state().getEmptyPosition())) { // impossible move
-                continue;
-            }
+        var listener = getSearchListener();
+        listener.nodeExpanded(currentState.depth(), currentState.getHeuristicValue() - currentState.depth());
+        Integer min = Integer.MAX_VALUE; // the value to return as x
+        for (TaquinBoardDirection direction : currentState.state().getLegalMoves()) { // creating a path per possible direction
 
             // creating the new board
             var newBoardState = currentState.state().copy();
-            var emptyPosition = newBoardState.getEmptyPosition();
             var instruction = TaquinBoardAction.mapFromDirection(direction);
-            newBoardState.processAction(instruction, emptyPosition);
+            newBoardState.moveEmpty(direction);
 
             // creating the new solution step
             var newDistance = currentState.depth() + 1;
             var solutionStep = new SolutionStep(newBoardState, currentState, instruction, newDistance);
             solutionStep.setHeuristicValue(heuristic.getResult(solutionStep));
 
-            if (path.contains(solutionStep)) // if the solution step already exists (only comparing the boards cf equals in SolutionStep.java) in the path, ignore it to avoid cycle
+            boolean inPath = path.contains(solutionStep);
+            listener.nodeGenerated(inPath);
+            if (inPath) // if the solution step already exists (only comparing the boards cf equals in SolutionStep.java) in the path, ignore it to avoid cycle
                 continue;
 
             path.add(solutionStep);
             if (path.size() > frontierSize) {
                 frontierSize = path.size();
             }
+            listener.frontierSize(path.size());
             var pair = solveForBound(path, newDistance, bound); // solve recursively for the new path
             numExpansions++;
             if (pair.getKey() < 0) { // Solution found
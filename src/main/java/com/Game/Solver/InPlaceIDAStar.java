@@ -0,0 +1,63 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+/**
+ * A version of IDA* which never allocates while exploring the tree.
+ * The iterations are the same as in IDAStar, but instead of copying the board for every child, the algorithm keeps
+ * a single flat array of cells: a move is applied before exploring the child and undone afterwards, see
+ * InPlaceSearch.
+ * The directions taken along the current path are stored in an array, and the SolutionSteps are built only once
+ * a solution is found.
+ */
+public class InPlaceIDAStar extends TaquinSolutionAlgorithm {
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+
+    public InPlaceIDAStar(Heuristic heuristic, boolean logProgress) {
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var startTime = System.nanoTime();
+        var search = new InPlaceSearch(heuristic, initialState.getSize(), InPlaceSearch.cellsOf(initialState),
+                new int[0], () -> runtimeExpired(startTime, maxRuntime), getSearchListener());
+
+        int estimate = heuristic.getEstimate(initialState);
+        int bound = estimate;
+        while (true) {
+            if (maxFrontierSize > 0 && search.getMaxDepth() > maxFrontierSize) {
+                return TaquinSolutionHolder.getExpiredFrontierSize();
+            }
+            if (logProgress) System.out.println("Bound : " + bound);
+            int result = search.solveForBound(0, estimate, bound, -1);
+            if (search.isStopped()) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+            if (search.isSolutionFound()) {
+                var elapsedTime = System.nanoTime() - startTime;
+                var solutionSteps = replaySolution(initialState, heuristic, search.getSolution());
+                return new TaquinSolutionHolder(solutionSteps, elapsedTime, search.getMaxDepth(),
+                        search.getNumExpansions(), false, false);
+            }
+            getSearchListener().iterationFinished(bound);
+            if (result == Integer.MAX_VALUE) { // Should not happen since at this point all instance are solvable
+                return TaquinSolutionHolder.getEmpty();
+            }
+            bound = result;
+        }
+    }
+}
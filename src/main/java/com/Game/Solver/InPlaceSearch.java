@@ -0,0 +1,230 @@
+package com.Game.Solver;
+
+import com.Game.Board.MoveTable;
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The bounded depth-first search of IDA* over a single board mutated in place.
+ * A move is applied before exploring the child and undone afterwards, the heuristic is updated from the move alone
+ * via Heuristic.getMoveDelta, and the only cycle we avoid is the one of undoing the previous move.
+ * The directions taken along the current path are stored in an array, which holds the solution once one is found.
+ * <p>
+ * The search may start from any node of the tree: the directions leading to it are then given as a prefix.
+ * A search is not thread safe, parallel algorithms use one search per thread.
+ */
+class InPlaceSearch {
+
+    static final int FOUND = -1;
+
+    static final TaquinBoardDirection[] DIRECTIONS = TaquinBoardDirection.values();
+
+    /**
+     * Number of expansions between two checks of the stop condition
+     */
+    private static final long STOP_CHECK_INTERVAL = 1 << 14;
+
+    private final Heuristic heuristic;
+    private final int size;
+    private final short[] cells;
+    private final short[] goalCells;
+    private final int[][] legalDirections;
+    private final BooleanSupplier stopCondition;
+    private final SearchListener listener;
+
+    private int emptyIndex;
+    private int[] directionsTaken;
+
+    private boolean solutionFound;
+    private boolean stopped;
+    private int solutionLength;
+    private long numExpansions;
+    private int maxDepth;
+
+    /**
+     * @param heuristic     The heuristic, which must support getMoveDelta
+     * @param size          The size of the board
+     * @param cells         The cells of the node to start from, row by row. The array is mutated during the search.
+     * @param prefix        The directions leading from the root of the tree to the node
+     * @param stopCondition Checked regularly, the search unwinds as soon as it returns true
+     * @param listener      Notified of the expansions and generations, the path being the frontier
+     */
+    InPlaceSearch(Heuristic heuristic, int size, short[] cells, int[] prefix, BooleanSupplier stopCondition,
+                  SearchListener listener) {
+        this.heuristic = heuristic;
+        this.size = size;
+        this.cells = cells;
+        this.goalCells = goalCells(size);
+        this.legalDirections = legalDirections(size);
+        this.stopCondition = stopCondition;
+        this.listener = listener;
+        this.directionsTaken = Arrays.copyOf(prefix, Math.max(64, prefix.length * 2));
+        this.emptyIndex = emptyIndexOf(cells);
+    }
+
+    /**
+     * @return The cells of the state, row by row
+     */
+    static short[] cellsOf(TaquinBoardState state) {
+        int size = state.getSize();
+        short[] cells = new short[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                cells[y * size + x] = state.getAtPosition(x, y);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * @return The index of the empty cell, only meant for the initial board of a search, whose successors move the
+     * empty cell from its known index
+     */
+    static int emptyIndexOf(short[] cells) {
+        for (int index = 0; index < cells.length; index++) {
+            if (CellUtilities.cellIsEmpty(cells[index])) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("The board has no empty cell");
+    }
+
+    /**
+     * @return The cells of the target of the given size, as built by TargetBoardState
+     */
+    static short[] goalCells(int size) {
+        short[] goalCells = new short[size * size];
+        for (int index = 0; index < size * size - 1; index++) {
+            goalCells[index] = (short) index;
+        }
+        goalCells[size * size - 1] = TaquinBoardState.EMPTY_ID;
+        return goalCells;
+    }
+
+    /**
+     * @return For every index of the board, the ordinals of the directions in which the empty cell can move from it
+     */
+    static int[][] legalDirections(int size) {
+        var moveTable = MoveTable.ofSize(size);
+        int[][] legalDirections = new int[size * size][];
+        for (int index = 0; index < size * size; index++) {
+            legalDirections[index] = moveTable.legalDirections(index);
+        }
+        return legalDirections;
+    }
+
+    /**
+     * @return The index the empty cell reaches when moving from index in the direction
+     */
+    static int neighborIndex(int size, int index, int direction) {
+        return switch (DIRECTIONS[direction]) {
+            case UP -> index - size;
+            case RIGHT -> index + 1;
+            case DOWN -> index + size;
+            case LEFT -> index - 1;
+        };
+    }
+
+    /**
+     * @return The ordinal of the direction undoing the given one
+     */
+    static int opposite(int direction) {
+        return (direction + 2) % 4;
+    }
+
+    /**
+     * Procedure for IDA*, exploring the subtree of the current board.
+     *
+     * @param depth             the depth of the current board in the tree
+     * @param estimate          the heuristic estimate of the current board
+     * @param bound             the limit for the value depth + estimate
+     * @param previousDirection the ordinal of the direction which led to the current board, -1 at the root
+     * @return FOUND if a solution was found, otherwise the lowest depth + estimate of the leaves which exceeded
+     * the bound, Integer.MAX_VALUE if the search was stopped
+     */
+    int solveForBound(int depth, int estimate, int bound, int previousDirection) {
+        int value = depth + estimate;
+        if (value > bound) {
+            return value;
+        }
+        // Every admissible heuristic is 0 on the goal, so there is no need to compare the cells otherwise
+        if (estimate == 0 && Arrays.equals(cells, goalCells)) {
+            solutionFound = true;
+            solutionLength = depth;
+            return FOUND;
+        }
+
+        numExpansions++;
+        listener.nodeExpanded(depth, estimate);
+        listener.frontierSize(depth + 1);
+        if (numExpansions % STOP_CHECK_INTERVAL == 0 && stopCondition.getAsBoolean()) {
+            stopped = true;
+            return Integer.MAX_VALUE;
+        }
+        if (depth + 1 > maxDepth) {
+            maxDepth = depth + 1;
+        }
+        if (depth == directionsTaken.length) {
+            directionsTaken = Arrays.copyOf(directionsTaken, directionsTaken.length * 2);
+        }
+
+        int min = Integer.MAX_VALUE;
+        int from = emptyIndex;
+        for (int direction : legalDirections[from]) {
+            if (previousDirection >= 0 && direction == opposite(previousDirection)) {
+                continue;
+            }
+
+            // apply the move: the neighbor cell slides into the empty cell
+            int to = neighborIndex(size, from, direction);
+            var movedCell = cells[to];
+            cells[from] = movedCell;
+            cells[to] = TaquinBoardState.EMPTY_ID;
+            emptyIndex = to;
+            directionsTaken[depth] = direction;
+            listener.nodeGenerated(false);
+
+            int result = solveForBound(depth + 1, estimate + heuristic.getMoveDelta(cells, to, from), bound, direction);
+
+            // undo the move
+            cells[to] = movedCell;
+            cells[from] = TaquinBoardState.EMPTY_ID;
+            emptyIndex = from;
+
+            if (solutionFound || stopped) {
+                return result;
+            }
+            if (result < min) min = result;
+        }
+
+        return min;
+    }
+
+    boolean isSolutionFound() {
+        return solutionFound;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return The directions from the root of the tree to the goal, valid once a solution is found
+     */
+    int[] getSolution() {
+        return Arrays.copyOf(directionsTaken, solutionLength);
+    }
+
+    long getNumExpansions() {
+        return numExpansions;
+    }
+
+    int getMaxDepth() {
+        return maxDepth;
+    }
+}
@@ -0,0 +1,108 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+/**
+ * A* with the step AStar omits: when a state is reached again with a lower depth, its step in the frontier is
+ * replaced, and a state already expanded is put back in the frontier (reopened).
+ * The frontier is an IndexedHeapFrontier, so replacing a step costs Log(n) instead of a scan of the frontier, and it
+ * never holds two steps of the same state, so no state is expanded twice for the same depth.
+ * The lowest depth each state was reached with is kept in a StateMap.
+ * <p>
+ * With an admissible heuristic, the solution is optimal even when the heuristic is not consistent. With a
+ * consistent one, no state is ever reopened.
+ */
+public class IndexedAStar extends TaquinSolutionAlgorithm {
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+
+    public IndexedAStar(Heuristic heuristic, boolean logProgress) {
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        var states = new IndexedHeapFrontier(initialState);
+        var bestDepths = StateMap.forState(initialState);
+
+        var initialStep = new SolutionStep(initialState, null, null, 0);
+        initialStep.setHeuristicValue(heuristic.getResult(initialStep));
+        states.add(initialStep);
+        bestDepths.put(initialState, 0);
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var listener = getSearchListener();
+        long startTime = System.nanoTime();
+        long numExpansions = 0;
+        long numReopened = 0;
+        long frontierSize = 0;
+
+        while (!states.isEmpty()) {
+            var currentState = states.poll();
+            listener.nodeExpanded(currentState.depth(), currentState.getHeuristicValue() - currentState.depth());
+
+            if (currentState.state().isGoalState()) {
+                long elapsedTime = System.nanoTime() - startTime;
+                if (logProgress) System.out.println("Reopened states : " + numReopened);
+                var solutionSteps = unwindSolutionTree(currentState);
+                return new TaquinSolutionHolder(solutionSteps, elapsedTime, frontierSize, numExpansions, false, false);
+            }
+
+            for (TaquinBoardDirection direction : currentState.state().getLegalMoves()) {
+                var instruction = TaquinBoardAction.mapFromDirection(direction);
+                if (currentState.instruction() == TaquinBoardAction.mapFromDirection(direction.mapFromOpposite())) {
+                    continue; // undoing the previous move never leads to a lower depth
+                }
+                var newBoardState = currentState.state().copy();
+                newBoardState.moveEmpty(direction);
+
+                var newDistance = currentState.depth() + 1;
+                int bestDepth = bestDepths.get(newBoardState);
+                boolean duplicate = bestDepth != StateMap.MISSING && bestDepth <= newDistance;
+                listener.nodeGenerated(duplicate);
+                if (duplicate) {
+                    continue;
+                }
+                if (bestDepth != StateMap.MISSING && states.get(newBoardState) == null) {
+                    numReopened++;
+                }
+                bestDepths.put(newBoardState, newDistance);
+
+                var solutionStep = new SolutionStep(newBoardState, currentState, instruction, newDistance);
+                solutionStep.setHeuristicValue(heuristic.getResult(solutionStep));
+                // inserts the step, or replaces the step of the state already in the frontier
+                states.add(solutionStep);
+            }
+
+            numExpansions++;
+            listener.frontierSize(states.size());
+
+            if (states.size() > frontierSize) {
+                frontierSize = states.size();
+            }
+
+            if (maxFrontierSize > 0 && frontierSize > maxFrontierSize) {
+                return TaquinSolutionHolder.getExpiredFrontierSize();
+            }
+
+            if (runtimeExpired(startTime, maxRuntime)) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+        }
+
+        return TaquinSolutionHolder.getEmpty();
+    }
+}
@@ -0,0 +1,137 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+import java.util.Arrays;
+
+/**
+ * Frontier holding at most one step per state, in a binary heap indexed by state.
+ * The position of each state in the heap is kept in a StateMap, so adding a step of a state already in the frontier
+ * replaces the previous step when the new one has a lower heuristic value and moves it up the heap (decrease-key),
+ * in Log(n) time instead of a scan of the frontier. A state leaves the map with its step, so the map only ever holds
+ * the states of the frontier.
+ * Steps of equal heuristic value come out deepest first, since they are closer to the goal.
+ */
+public class IndexedHeapFrontier implements Frontier {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StateMap positions;
+    private SolutionStep[] heap = new SolutionStep[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param initialState The initial state of the search, used to choose how the positions of the states are stored
+     */
+    public IndexedHeapFrontier(TaquinBoardState initialState) {
+        this.positions = StateMap.forState(initialState);
+    }
+
+    /**
+     * Adds the step, or replaces the step of the same state if the new one has a lower heuristic value, or the same
+     * heuristic value with a lower depth
+     */
+    @Override
+    public void add(SolutionStep step) {
+        int position = positions.get(step.state());
+        if (position != StateMap.MISSING) {
+            var previous = heap[position];
+            int comparison = step.compareTo(previous);
+            if (comparison < 0 || comparison == 0 && step.depth() < previous.depth()) {
+                heap[position] = step;
+                siftUp(position);
+                siftDown(positions.get(step.state()));
+            }
+            return;
+        }
+
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        heap[size] = step;
+        positions.put(step.state(), size);
+        siftUp(size++);
+    }
+
+    @Override
+    public SolutionStep poll() {
+        if (size == 0) {
+            return null;
+        }
+        var first = heap[0];
+        positions.remove(first.state());
+        var last = heap[--size];
+        heap[size] = null;
+        if (size > 0) {
+            heap[0] = last;
+            positions.put(last.state(), 0);
+            siftDown(0);
+        }
+        return first;
+    }
+
+    /**
+     * @return The step with the lowest heuristic value, left in the frontier, or null if the frontier is empty
+     */
+    public SolutionStep peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * @return The step of the state in the frontier, null if the state is not in the frontier
+     */
+    public SolutionStep get(TaquinBoardState state) {
+        int position = positions.get(state);
+        return position == StateMap.MISSING ? null : heap[position];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void siftUp(int position) {
+        var step = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!isBefore(step, heap[parent])) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(step, position);
+    }
+
+    private void siftDown(int position) {
+        var step = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], step)) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(step, position);
+    }
+
+    private void place(SolutionStep step, int position) {
+        heap[position] = step;
+        positions.put(step.state(), position);
+    }
+
+    private static boolean isBefore(SolutionStep step, SolutionStep other) {
+        int comparison = step.compareTo(other);
+        return comparison < 0 || comparison == 0 && step.depth() > other.depth();
+    }
+}
@@ -0,0 +1,35 @@
+package com.Game.Solver.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning an iteration of a search, committed by SearchMetrics
+ */
+@Name("com.Game.Solver.SearchIteration")
+@Label("Search Iteration")
+@Category({"Taquin", "Solver"})
+@Description("An iteration of a search, such as a depth-first search up to a bound of IDA*")
+class SearchIterationEvent extends Event {
+
+    @Label("Search")
+    String search;
+
+    @Label("Bound")
+    int bound;
+
+    @Label("Expansions")
+    @Description("Nodes expanded during the iteration")
+    long expansions;
+
+    @Label("Generations")
+    @Description("Nodes generated during the iteration")
+    long generations;
+
+    @Label("Duplicates")
+    @Description("Nodes generated during the iteration whose state was already seen")
+    long duplicates;
+}
@@ -0,0 +1,193 @@
+package com.Game.Solver.Metrics;
+
+import com.Game.Solver.SearchListener;
+import com.Game.Solver.SolutionStep;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SearchListener counting the expansions, generations and duplicates of a search, the high-water mark of its
+ * frontier and the expansions of each f-layer (depth + estimate). The counters are LongAdders, so the threads of a
+ * parallel search do not contend on them.
+ * <p>
+ * The metrics can be registered as an MXBean to be read live over JMX while the search runs. Each iteration of an
+ * iterative search is also recorded as a SearchIterationEvent when a flight recording is running.
+ */
+public class SearchMetrics implements SearchListener, SearchMetricsMXBean {
+
+    private final String name;
+    private final long startTime = System.nanoTime();
+    private volatile long endTime = -1;
+
+    private final LongAdder expansions = new LongAdder();
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAccumulator frontierHighWaterMark = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator iterationLayer = new LongAccumulator(Math::max, 0);
+    private volatile long frontierSize;
+    private volatile int solutionLength = -1;
+    private volatile double suboptimalityBound = Double.NaN;
+    private final Map<Integer, LongAdder> expansionsPerLayer = new ConcurrentHashMap<>();
+
+    private long iterations = 0;
+    private SearchIterationEvent iteration;
+    private long iterationExpansions;
+    private long iterationGenerations;
+    private long iterationDuplicates;
+
+    private ObjectName objectName;
+
+    /**
+     * @param name The name of the search, in the JMX object name and the flight recorder events
+     */
+    public SearchMetrics(String name) {
+        this.name = name;
+        startIteration();
+    }
+
+    @Override
+    public void nodeExpanded(int depth, int estimate) {
+        expansions.increment();
+        iterationLayer.accumulate(depth + estimate);
+        expansionsPerLayer.computeIfAbsent(depth + estimate, layer -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void nodeGenerated(boolean duplicate) {
+        generations.increment();
+        if (duplicate) {
+            duplicates.increment();
+        }
+    }
+
+    @Override
+    public void frontierSize(long size) {
+        frontierHighWaterMark.accumulate(size);
+        frontierSize = size;
+    }
+
+    @Override
+    public synchronized void iterationFinished(int bound) {
+        iterations++;
+        var event = iteration;
+        if (event.shouldCommit()) {
+            event.search = name;
+            event.bound = bound;
+            event.expansions = expansions.sum() - iterationExpansions;
+            event.generations = generations.sum() - iterationGenerations;
+            event.duplicates = duplicates.sum() - iterationDuplicates;
+            event.commit();
+        }
+        startIteration();
+    }
+
+    @Override
+    public void solutionImproved(List<SolutionStep> solutionSteps, double suboptimalityBound) {
+        this.suboptimalityBound = suboptimalityBound;
+        this.solutionLength = solutionSteps.size();
+    }
+
+    /**
+     * Marks the end of the search, which freezes the nodes per second
+     */
+    public void stop() {
+        endTime = System.nanoTime();
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, under com.Game.Solver:type=SearchMetrics,name=[name]
+     *
+     * @throws JMException if the metrics cannot be registered, for instance when the name is taken
+     */
+    public synchronized void register() throws JMException {
+        var objectName = new ObjectName("com.Game.Solver:type=SearchMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if they were registered
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public long getExpansions() {
+        return expansions.sum();
+    }
+
+    @Override
+    public long getGenerations() {
+        return generations.sum();
+    }
+
+    @Override
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    @Override
+    public long getFrontierHighWaterMark() {
+        return frontierHighWaterMark.get();
+    }
+
+    @Override
+    public long getFrontierSize() {
+        return frontierSize;
+    }
+
+    @Override
+    public int getLayer() {
+        return iterationLayer.intValue();
+    }
+
+    @Override
+    public int getSolutionLength() {
+        return solutionLength;
+    }
+
+    @Override
+    public double getSuboptimalityBound() {
+        return suboptimalityBound;
+    }
+
+    @Override
+    public double getNodesPerSecond() {
+        long end = endTime < 0 ? System.nanoTime() : endTime;
+        double seconds = (end - startTime) / 1e9;
+        return seconds > 0 ? expansions.sum() / seconds : 0;
+    }
+
+    @Override
+    public synchronized long getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public Map<Integer, Long> getExpansionsPerLayer() {
+        var layers = new TreeMap<Integer, Long>();
+        expansionsPerLayer.forEach((layer, count) -> layers.put(layer, count.sum()));
+        return layers;
+    }
+
+    private void startIteration() {
+        iterationLayer.reset();
+        iteration = new SearchIterationEvent();
+        iteration.begin();
+        iterationExpansions = expansions.sum();
+        iterationGenerations = generations.sum();
+        iterationDuplicates = duplicates.sum();
+    }
+}
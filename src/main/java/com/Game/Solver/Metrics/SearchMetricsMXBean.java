@@ -0,0 +1,59 @@
+package com.Game.Solver.Metrics;
+
+import java.util.Map;
+
+/**
+ * Live view of a SearchMetrics, for JMX clients such as JConsole
+ */
+public interface SearchMetricsMXBean {
+
+    long getExpansions();
+
+    long getGenerations();
+
+    /**
+     * @return The number of nodes generated whose state was already seen
+     */
+    long getDuplicates();
+
+    /**
+     * @return The largest size the frontier reached
+     */
+    long getFrontierHighWaterMark();
+
+    /**
+     * @return The size of the frontier last reported
+     */
+    long getFrontierSize();
+
+    /**
+     * @return The highest depth + estimate expanded in the current iteration, the f-layer of A* or the bound of IDA*
+     * once reached
+     */
+    int getLayer();
+
+    /**
+     * @return The length of the best solution an anytime search published, -1 before the first one
+     */
+    int getSolutionLength();
+
+    /**
+     * @return The factor the best solution published may be longer than an optimal one by, NaN before the first one
+     */
+    double getSuboptimalityBound();
+
+    /**
+     * @return The expansions per second, from the creation of the metrics to now or to the end of the search
+     */
+    double getNodesPerSecond();
+
+    /**
+     * @return The number of iterations over, for the iterative searches
+     */
+    long getIterations();
+
+    /**
+     * @return The number of nodes expanded for each value of depth + estimate
+     */
+    Map<Integer, Long> getExpansionsPerLayer();
+}
@@ -0,0 +1,233 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Cell.Position;
+
+import java.util.Arrays;
+
+/**
+ * Search nodes stored in parallel primitive arrays instead of a graph of SolutionStep objects.
+ * A node is an index into the arrays, which hold its board, the index of its parent, the direction the empty cell
+ * moved in from the parent and its depth packed in a short, its heuristic estimate in another short, and the index of
+ * its empty cell in a third one, so that expanding a node never scans its board for the empty cell.
+ * With boards small enough to be encoded, a node weighs 18 bytes and nothing but the arrays is allocated, no matter
+ * how many nodes the search creates. Larger boards store their cells row by row in a shared short array.
+ * <p>
+ * The path to a node is read back by following the parent indexes, see pathTo.
+ */
+public class NodeArena {
+
+    public static final int NO_PARENT = -1;
+
+    private static final int DIRECTION_BITS = 2;
+    private static final int DIRECTION_MASK = (1 << DIRECTION_BITS) - 1;
+
+    public static final int MAX_DEPTH = (1 << Short.SIZE - DIRECTION_BITS) - 1;
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private final int size;
+    private final int cellsPerNode;
+    private final boolean encoded;
+
+    /**
+     * Encoding of the board of each node, when the boards can be encoded
+     */
+    private long[] encodings;
+
+    /**
+     * Cells of the board of each node, cellsPerNode at a time, when the boards cannot be encoded
+     */
+    private short[] cells;
+
+    private int[] parents;
+
+    /**
+     * Depth of each node in the high bits, ordinal of the direction leading to it in the low 2 bits
+     */
+    private short[] moves;
+
+    private short[] estimates;
+
+    private short[] emptyIndexes;
+
+    private int count = 0;
+
+    /**
+     * @param initialState The initial state of the search, all the states of the search having the same size
+     */
+    public NodeArena(TaquinBoardState initialState) {
+        this.size = initialState.getSize();
+        this.cellsPerNode = size * size;
+        this.encoded = initialState.canBeEncoded();
+        if (encoded) {
+            encodings = new long[INITIAL_CAPACITY];
+        } else {
+            cells = new short[INITIAL_CAPACITY * cellsPerNode];
+        }
+        parents = new int[INITIAL_CAPACITY];
+        moves = new short[INITIAL_CAPACITY];
+        estimates = new short[INITIAL_CAPACITY];
+        emptyIndexes = new short[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param boardCells The cells of the board of the node, row by row
+     * @param parent     The index of the parent node, NO_PARENT for the root
+     * @param direction  The ordinal of the direction the empty cell moved in from the parent, ignored for the root
+     * @param depth      The depth of the node, at most MAX_DEPTH
+     * @param estimate   The heuristic estimate of the board
+     * @return The index of the new node
+     */
+    public int add(short[] boardCells, int parent, int direction, int depth, int estimate) {
+        if (depth > MAX_DEPTH || estimate > Short.MAX_VALUE) {
+            throw new IllegalStateException("A node of depth " + depth + " and estimate " + estimate
+                    + " does not fit in the arena");
+        }
+        if (count == parents.length) {
+            grow();
+        }
+        if (encoded) {
+            encodings[count] = encode(boardCells);
+        } else {
+            System.arraycopy(boardCells, 0, cells, count * cellsPerNode, cellsPerNode);
+        }
+        parents[count] = parent;
+        moves[count] = (short) (depth << DIRECTION_BITS | (parent == NO_PARENT ? 0 : direction));
+        estimates[count] = (short) estimate;
+        // the empty cell of a child is where the empty cell of its parent moved to
+        emptyIndexes[count] = (short) (parent == NO_PARENT ? InPlaceSearch.emptyIndexOf(boardCells) :
+                InPlaceSearch.neighborIndex(size, emptyIndexes[parent], direction));
+        return count++;
+    }
+
+    /**
+     * Removes the node added last, so a node built only to check whether its board was already seen takes no room
+     */
+    public void removeLast() {
+        count--;
+    }
+
+    /**
+     * Writes the cells of the board of the node, row by row, into the given array
+     */
+    public void copyCells(int node, short[] target) {
+        if (!encoded) {
+            System.arraycopy(cells, node * cellsPerNode, target, 0, cellsPerNode);
+            return;
+        }
+        long encoding = encodings[node];
+        for (int index = 0; index < cellsPerNode; index++) {
+            int cell = (int) (encoding & 0xF);
+            target[index] = cell == 0 ? TaquinBoardState.EMPTY_ID : (short) (cell - 1);
+            encoding >>>= 4;
+        }
+    }
+
+    /**
+     * @return The board of the node, as a new state
+     */
+    public TaquinBoardState stateOf(int node) {
+        if (encoded) {
+            return TaquinBoardState.decode(size, encodings[node]);
+        }
+        var state = TaquinBoardState.ofSize(size);
+        for (int index = 0; index < cellsPerNode; index++) {
+            state.addCell(new Position(index % size, index / size), cells[node * cellsPerNode + index]);
+        }
+        return state;
+    }
+
+    /**
+     * @return The encoding of the board of the node, only available when the boards can be encoded
+     */
+    public long encodingOf(int node) {
+        return encodings[node];
+    }
+
+    /**
+     * @return A hash of the cells of the board of the node, only available when the boards cannot be encoded
+     */
+    public int hashCells(int node) {
+        int hash = 1;
+        for (int index = node * cellsPerNode, end = index + cellsPerNode; index < end; index++) {
+            hash = 31 * hash + cells[index];
+        }
+        return hash;
+    }
+
+    /**
+     * @return true if the two nodes hold the same board, only available when the boards cannot be encoded
+     */
+    public boolean sameCells(int node, int other) {
+        return Arrays.equals(cells, node * cellsPerNode, (node + 1) * cellsPerNode,
+                cells, other * cellsPerNode, (other + 1) * cellsPerNode);
+    }
+
+    public int parentOf(int node) {
+        return parents[node];
+    }
+
+    /**
+     * @return The ordinal of the direction the empty cell moved in from the parent, -1 for the root
+     */
+    public int directionOf(int node) {
+        return parents[node] == NO_PARENT ? -1 : moves[node] & DIRECTION_MASK;
+    }
+
+    public int depthOf(int node) {
+        return (moves[node] & 0xFFFF) >>> DIRECTION_BITS;
+    }
+
+    public int estimateOf(int node) {
+        return estimates[node];
+    }
+
+    /**
+     * @return The index of the empty cell of the board of the node, row by row
+     */
+    public int emptyIndexOf(int node) {
+        return emptyIndexes[node];
+    }
+
+    /**
+     * @return The directions leading from the root to the node, as taken by the empty cell
+     */
+    public int[] pathTo(int node) {
+        int[] directions = new int[depthOf(node)];
+        for (int current = node; parents[current] != NO_PARENT; current = parents[current]) {
+            directions[depthOf(current) - 1] = directionOf(current);
+        }
+        return directions;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Encodes the cells with the layout of TaquinBoardState.encode
+     */
+    private long encode(short[] boardCells) {
+        long encoding = 0;
+        for (int index = cellsPerNode - 1; index >= 0; index--) {
+            var cell = boardCells[index];
+            encoding = encoding << 4 | (CellUtilities.cellIsEmpty(cell) ? 0 : cell + 1);
+        }
+        return encoding;
+    }
+
+    private void grow() {
+        int capacity = parents.length * 2;
+        if (encoded) {
+            encodings = Arrays.copyOf(encodings, capacity);
+        } else {
+            cells = Arrays.copyOf(cells, capacity * cellsPerNode);
+        }
+        parents = Arrays.copyOf(parents, capacity);
+        moves = Arrays.copyOf(moves, capacity);
+        estimates = Arrays.copyOf(estimates, capacity);
+        emptyIndexes = Arrays.copyOf(emptyIndexes, capacity);
+    }
+}
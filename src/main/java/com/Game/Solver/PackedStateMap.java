@@ -0,0 +1,215 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+/**
+ * Map from keys encoded in a long, such as TaquinBoardState.encode(), to int values.
+ * Like PackedStateSet, the keys are stored in a primitive array with open addressing and linear probing, the values
+ * in a parallel array, so an entry costs 12 bytes divided by the load factor.
+ * As a StateMap, it is keyed by the encoding of the boards.
+ * A key is removed by backward-shift deletion: the keys probed after it are moved back into the slot it frees, so
+ * removals leave no tombstones behind and the probes stay as short as if the key had never been added.
+ */
+public class PackedStateMap implements StateMap {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * Value returned by get() for a missing key
+     */
+    public static final int MISSING = -1;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long FREE_KEY = 0;
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private int[] values;
+    private int shift;
+    private int resizeThreshold;
+    private int size;
+    private boolean containsFreeKey;
+    private int freeKeyValue;
+
+    public PackedStateMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize The number of keys the map should hold before its first resize
+     * @param loadFactor   The maximal ratio of used slots, between 0 and 1 excluded
+     */
+    public PackedStateMap(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1, got " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        long wantedCapacity = (long) Math.ceil(Math.max(expectedSize, 1) / loadFactor);
+        int capacity = 2;
+        while (capacity < wantedCapacity && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    @Override
+    public int get(TaquinBoardState state) {
+        return get(state.encode());
+    }
+
+    @Override
+    public int put(TaquinBoardState state, int value) {
+        return put(state.encode(), value);
+    }
+
+    @Override
+    public int remove(TaquinBoardState state) {
+        return remove(state.encode());
+    }
+
+    /**
+     * @return The value of the key, MISSING if the key is not in the map
+     */
+    public int get(long key) {
+        if (key == FREE_KEY) {
+            return containsFreeKey ? freeKeyValue : MISSING;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY) {
+            return containsFreeKey;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * @return The previous value of the key, MISSING if the key was not in the map
+     */
+    public int put(long key, int value) {
+        if (key == FREE_KEY) {
+            int previous = containsFreeKey ? freeKeyValue : MISSING;
+            if (!containsFreeKey) {
+                containsFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return previous;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return MISSING;
+    }
+
+    /**
+     * @return The value the key had, MISSING if the key was not in the map
+     */
+    public int remove(long key) {
+        if (key == FREE_KEY) {
+            if (!containsFreeKey) {
+                return MISSING;
+            }
+            containsFreeKey = false;
+            size--;
+            return freeKeyValue;
+        }
+
+        int gap = findSlot(key);
+        if (gap < 0) {
+            return MISSING;
+        }
+        int previous = values[gap];
+        int mask = keys.length - 1;
+        for (int slot = (gap + 1) & mask; keys[slot] != FREE_KEY; slot = (slot + 1) & mask) {
+            // the key moves back into the gap unless its probe starts after the gap
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = FREE_KEY;
+        size--;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int findSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Fibonacci hashing, as in PackedStateSet
+     */
+    private int slotOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        shift = Long.numberOfLeadingZeros(capacity) + 1;
+        resizeThreshold = (int) Math.min(capacity * (double) loadFactor, capacity - 1);
+    }
+
+    private void resize() {
+        if (keys.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Packed state map cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            long key = oldKeys[oldSlot];
+            if (key == FREE_KEY) {
+                continue;
+            }
+            int slot = slotOf(key);
+            while (keys[slot] != FREE_KEY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = oldValues[oldSlot];
+        }
+    }
+}
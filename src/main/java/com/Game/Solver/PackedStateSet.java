@@ -0,0 +1,150 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+/**
+ * StateSet keyed by the encoding of the boards in a long, see TaquinBoardState.encode().
+ * The keys are stored in a primitive array with open addressing and linear probing, so an entry costs 8 bytes
+ * divided by the load factor instead of a board object and a hash set entry.
+ * The value 0 marks a free slot: it would be a board made only of empty cells, which cannot happen, but it is
+ * still tracked separately to keep the set correct for any key.
+ * When the number of keys exceeds the load factor, the capacity doubles and all keys are reinserted.
+ */
+public class PackedStateSet implements StateSet {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long FREE_KEY = 0;
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private int shift;
+    private int resizeThreshold;
+    private int size;
+    private boolean containsFreeKey;
+
+    public PackedStateSet() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize The number of keys the set should hold before its first resize
+     * @param loadFactor   The maximal ratio of used slots, between 0 and 1 excluded. Lower values shorten probes
+     *                     at the cost of memory.
+     */
+    public PackedStateSet(int expectedSize, float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1, got " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        long wantedCapacity = (long) Math.ceil(Math.max(expectedSize, 1) / loadFactor);
+        int capacity = 2;
+        while (capacity < wantedCapacity && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    @Override
+    public boolean add(TaquinBoardState state) {
+        return add(state.encode());
+    }
+
+    @Override
+    public boolean contains(TaquinBoardState state) {
+        return contains(state.encode());
+    }
+
+    /**
+     * @param key The encoding of a board
+     * @return true if the key was not already in the set
+     */
+    public boolean add(long key) {
+        if (key == FREE_KEY) {
+            if (containsFreeKey) {
+                return false;
+            }
+            containsFreeKey = true;
+            size++;
+            return true;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == FREE_KEY) {
+            return containsFreeKey;
+        }
+
+        int mask = keys.length - 1;
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of slots currently allocated
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Fibonacci hashing: the key is multiplied by the golden ratio and the highest bits give the slot, so that
+     * encodings differing only in a few cells end up far apart.
+     */
+    private int slotOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        shift = Long.numberOfLeadingZeros(capacity) + 1;
+        resizeThreshold = (int) Math.min(capacity * (double) loadFactor, capacity - 1);
+    }
+
+    private void resize() {
+        if (keys.length >= MAX_CAPACITY) {
+            throw new IllegalStateException("Packed state set cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        var oldKeys = keys;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (long key : oldKeys) {
+            if (key == FREE_KEY) {
+                continue;
+            }
+            int slot = slotOf(key);
+            while (keys[slot] != FREE_KEY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+import com.Game.Solver.Heuristic.Heuristic;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A parallel version of InPlaceIDAStar.
+ * The tree is first expanded breadth first down to a split depth, and every node of that depth becomes the root of
+ * a subtree. Each iteration of IDA* then explores the subtrees on a ForkJoinPool, each with its own InPlaceSearch,
+ * and the pool balances the uneven subtrees by work stealing. The next bound is the lowest value exceeding the
+ * bound over all subtrees.
+ * <p>
+ * As in the sequential version, every solution found within the bound of an iteration is optimal, since no solution
+ * was found within the previous bound, so the first subtree to find one stops the others.
+ */
+public class ParallelIDAStar extends TaquinSolutionAlgorithm {
+
+    /**
+     * Around two thousand subtrees on a 4x4 board, enough to keep the threads busy without a costly expansion
+     */
+    public static final int DEFAULT_SPLIT_DEPTH = 10;
+
+    private final boolean logProgress;
+    private final Heuristic heuristic;
+    private final int parallelism;
+    private final int splitDepth;
+
+    public ParallelIDAStar(Heuristic heuristic, boolean logProgress) {
+        this(heuristic, logProgress, Runtime.getRuntime().availableProcessors(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * @param heuristic   The heuristic, which must support getMoveDelta and be safe to use from several threads
+     * @param parallelism The number of threads exploring the subtrees
+     * @param splitDepth  The depth of the roots of the subtrees
+     */
+    public ParallelIDAStar(Heuristic heuristic, boolean logProgress, int parallelism, int splitDepth) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism);
+        }
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("Split depth must not be negative, got " + splitDepth);
+        }
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+        this.parallelism = parallelism;
+        this.splitDepth = splitDepth;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        var startTime = System.nanoTime();
+        var size = initialState.getSize();
+        var goalCells = InPlaceSearch.goalCells(size);
+
+        // Breadth first expansion down to the split depth, a solution above it is found here
+        var numExpansions = new LongAdder();
+        var subtreeRoots = List.of(new SubtreeRoot(InPlaceSearch.cellsOf(initialState), new int[0],
+                heuristic.getEstimate(initialState)));
+        for (int depth = 0; depth < splitDepth; depth++) {
+            if (runtimeExpired(startTime, maxRuntime)) {
+                return TaquinSolutionHolder.getExpiredRuntime();
+            }
+            for (var subtreeRoot : subtreeRoots) {
+                if (subtreeRoot.estimate() == 0 && Arrays.equals(subtreeRoot.cells(), goalCells)) {
+                    return solution(initialState, subtreeRoot.directions(), startTime, depth, numExpansions.sum());
+                }
+            }
+            numExpansions.add(subtreeRoots.size());
+            subtreeRoots = expand(subtreeRoots, size, startTime, maxRuntime);
+        }
+        if (runtimeExpired(startTime, maxRuntime)) { // the last expansion may have been cut short
+            return TaquinSolutionHolder.getExpiredRuntime();
+        }
+        if (logProgress) System.out.println("Subtrees : " + subtreeRoots.size());
+
+        var stop = new AtomicBoolean();
+        var solution = new AtomicReference<int[]>();
+        var maxDepth = new LongAccumulator(Math::max, splitDepth);
+        BooleanSupplier stopCondition = () -> stop.get()
+                || runtimeExpired(startTime, maxRuntime);
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            int bound = subtreeRoots.stream().mapToInt(SubtreeRoot::value).min().orElse(Integer.MAX_VALUE);
+            while (true) {
+                if (maxFrontierSize > 0 && maxDepth.get() > maxFrontierSize) {
+                    return TaquinSolutionHolder.getExpiredFrontierSize();
+                }
+                if (logProgress) System.out.println("Bound : " + bound);
+                var task = new BoundTask(subtreeRoots, 0, subtreeRoots.size(), bound, size, stopCondition, stop,
+                        solution, numExpansions, maxDepth);
+                int result = pool.invoke(task);
+                if (solution.get() != null) {
+                    return solution(initialState, solution.get(), startTime, maxDepth.get(), numExpansions.sum());
+                }
+                if (stop.get()) {
+                    return TaquinSolutionHolder.getExpiredRuntime();
+                }
+                getSearchListener().iterationFinished(bound);
+                if (result == Integer.MAX_VALUE) { // Should not happen since at this point all instance are solvable
+                    return TaquinSolutionHolder.getEmpty();
+                }
+                bound = result;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TaquinSolutionHolder solution(TaquinBoardState initialState, int[] directions, long startTime,
+                                          long maxDepth, long numExpansions) {
+        var elapsedTime = System.nanoTime() - startTime;
+        var solutionSteps = replaySolution(initialState, heuristic, directions);
+        return new TaquinSolutionHolder(solutionSteps, elapsedTime, maxDepth, numExpansions, false, false);
+    }
+
+    /**
+     * @return The children of the nodes, without undoing the move which led to each node, only some of them if the
+     * runtime expired or the search was cancelled meanwhile
+     */
+    private List<SubtreeRoot> expand(List<SubtreeRoot> nodes, int size, long startTime, long maxRuntime) {
+        var legalDirections = InPlaceSearch.legalDirections(size);
+        var listener = getSearchListener();
+        var children = new ArrayList<SubtreeRoot>(nodes.size() * 3);
+        for (var node : nodes) {
+            if (runtimeExpired(startTime, maxRuntime)) {
+                break;
+            }
+            listener.nodeExpanded(node.directions().length, node.estimate());
+            var from = node.emptyIndex();
+            var previousDirection = node.previousDirection();
+            for (int direction : legalDirections[from]) {
+                if (previousDirection >= 0 && direction == InPlaceSearch.opposite(previousDirection)) {
+                    continue;
+                }
+                int to = InPlaceSearch.neighborIndex(size, from, direction);
+                var cells = node.cells().clone();
+                cells[from] = cells[to];
+                cells[to] = TaquinBoardState.EMPTY_ID;
+                var directions = Arrays.copyOf(node.directions(), node.directions().length + 1);
+                directions[node.directions().length] = direction;
+                children.add(new SubtreeRoot(cells, directions, node.estimate() + heuristic.getMoveDelta(cells, to, from)));
+                listener.nodeGenerated(false);
+            }
+        }
+        listener.frontierSize(children.size());
+        return children;
+    }
+
+    /**
+     * A node of the split depth, with the directions leading to it from the initial state
+     */
+    private record SubtreeRoot(short[] cells, int[] directions, int estimate) {
+
+        int value() {
+            return directions.length + estimate;
+        }
+
+        int previousDirection() {
+            return directions.length == 0 ? -1 : directions[directions.length - 1];
+        }
+
+        int emptyIndex() {
+            return InPlaceSearch.emptyIndexOf(cells);
+        }
+    }
+
+    /**
+     * Explores a range of subtrees for a bound, splitting the range in halves until a single subtree is left.
+     * The result is the lowest value exceeding the bound in the range.
+     */
+    private class BoundTask extends RecursiveTask<Integer> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final List<SubtreeRoot> subtreeRoots;
+        private final int start;
+        private final int end;
+        private final int bound;
+        private final int size;
+        private final BooleanSupplier stopCondition;
+        private final AtomicBoolean stop;
+        private final AtomicReference<int[]> solution;
+        private final LongAdder numExpansions;
+        private final LongAccumulator maxDepth;
+
+        BoundTask(List<SubtreeRoot> subtreeRoots, int start, int end, int bound, int size,
+                  BooleanSupplier stopCondition, AtomicBoolean stop, AtomicReference<int[]> solution,
+                  LongAdder numExpansions, LongAccumulator maxDepth) {
+            this.subtreeRoots = subtreeRoots;
+            this.start = start;
+            this.end = end;
+            this.bound = bound;
+            this.size = size;
+            this.stopCondition = stopCondition;
+            this.stop = stop;
+            this.solution = solution;
+            this.numExpansions = numExpansions;
+            this.maxDepth = maxDepth;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (end - start > 1) {
+                int middle = (start + end) >>> 1;
+                var left = new BoundTask(subtreeRoots, start, middle, bound, size, stopCondition, stop, solution,
+                        numExpansions, maxDepth);
+                var right = new BoundTask(subtreeRoots, middle, end, bound, size, stopCondition, stop, solution,
+                        numExpansions, maxDepth);
+                left.fork();
+                int rightResult = right.compute();
+                return Math.min(left.join(), rightResult);
+            }
+            if (start == end || stop.get()) {
+                return Integer.MAX_VALUE;
+            }
+            if (stopCondition.getAsBoolean()) { // a subtree may be too small to ever check it itself
+                stop.set(true);
+                return Integer.MAX_VALUE;
+            }
+
+            var subtreeRoot = subtreeRoots.get(start);
+            var search = new InPlaceSearch(heuristic, size, subtreeRoot.cells().clone(), subtreeRoot.directions(),
+                    stopCondition, getSearchListener());
+            int result = search.solveForBound(subtreeRoot.directions().length, subtreeRoot.estimate(), bound,
+                    subtreeRoot.previousDirection());
+            numExpansions.add(search.getNumExpansions());
+            maxDepth.accumulate(search.getMaxDepth());
+            if (search.isSolutionFound()) {
+                solution.compareAndSet(null, search.getSolution());
+                stop.set(true);
+                return Integer.MAX_VALUE;
+            }
+            if (search.isStopped()) {
+                stop.set(true);
+            }
+            return result;
+        }
+    }
+}
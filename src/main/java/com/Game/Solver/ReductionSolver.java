@@ -0,0 +1,505 @@
+package com.Game.Solver;
+
+import com.Game.Board.TargetBoardState;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Cell.Position;
+import com.Game.Solver.Heuristic.Heuristic;
+import com.Game.Solver.Heuristic.ManhattanDistanceHeuristic;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Suboptimal solver for boards of any size, which reduces the board one line at a time instead of searching.
+ * The top row is placed tile by tile, then the left column, leaving a board one row and one column smaller, until
+ * 3x3 remains, which is solved optimally with IDA*.
+ * <p>
+ * A tile is moved along a shortest path to its target, one cell at a time: the empty cell is routed to the next cell
+ * of the path without crossing the tile nor the tiles already placed, then swapped with the tile. The cells left free
+ * stay connected with any single cell removed, so the empty cell can always get around the tile.
+ * The last two tiles of a line cannot be placed that way without moving the first ones out: they are parked under
+ * their targets, then brought in by a breadth-first search over the positions of the two tiles and of the empty cell
+ * in the 2 cells wide block around them.
+ * <p>
+ * A board of size n is solved in O(n³) moves and time, with a few arrays of n² ints. The moves are handed out as they
+ * are decided by solve(int, int[], IntConsumer), which works on int ids and so has no limit on the size of the board.
+ */
+public class ReductionSolver extends TaquinSolutionAlgorithm {
+
+    /**
+     * Id of the empty cell in the int boards
+     */
+    public static final int BLANK = -1;
+
+    /**
+     * Returned by solve when the stop condition ended the search
+     */
+    public static final long STOPPED = -2;
+
+    /**
+     * Size of the block solved with IDA*
+     */
+    private static final int FINAL_SIZE = 3;
+
+    private final Heuristic heuristic;
+    private final boolean logProgress;
+
+    /**
+     * @param heuristic The heuristic filling the heuristic values of the steps of the solution, the search does not
+     *                  use it
+     */
+    public ReductionSolver(Heuristic heuristic, boolean logProgress) {
+        this.heuristic = heuristic;
+        this.logProgress = logProgress;
+    }
+
+    @Override
+    public TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize) {
+        if (!stateIsSolvable(initialState)) {
+            System.out.println("Cannot be solved");
+            return TaquinSolutionHolder.getEmpty();
+        }
+
+        if (logProgress) {
+            System.out.println("Start Solve!");
+        }
+
+        int size = initialState.getSize();
+        var tiles = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                var cell = initialState.getAtPosition(x, y);
+                tiles[y * size + x] = CellUtilities.cellIsEmpty(cell) ? BLANK : cell;
+            }
+        }
+
+        var startTime = System.nanoTime();
+        var directions = IntStream.builder();
+        var reduction = new Reduction(size, tiles, directions,
+                () -> runtimeExpired(startTime, maxRuntime));
+        if (!reduction.run()) {
+            return TaquinSolutionHolder.getExpiredRuntime();
+        }
+        var elapsedTime = System.nanoTime() - startTime;
+        var solutionSteps = replaySolution(initialState, heuristic, directions.build().toArray());
+        return new TaquinSolutionHolder(solutionSteps, elapsedTime, 0, reduction.numExpansions, false, false);
+    }
+
+    /**
+     * Solves a board given as int ids, without building any board state: each move is handed to the consumer as soon
+     * as it is decided, so the memory used does not grow with the length of the solution.
+     *
+     * @param tiles         The ids of the cells row by row, from 0 to size * size - 2, and BLANK for the empty cell.
+     *                      The array is not modified.
+     * @param moves         Receives the ordinal of the direction taken by the empty cell, move after move
+     * @param stopCondition Checked after each tile placed, the last two tiles of a line counting as one, and during
+     *                      the IDA* search of the last block, ends the search when true
+     * @return The number of moves, -1 if the board cannot be solved, STOPPED if the stop condition ended the search
+     * @throws IllegalArgumentException if the tiles are not the ids of a board of that size
+     */
+    public long solve(int size, int[] tiles, IntConsumer moves, BooleanSupplier stopCondition) {
+        int numberOfCells = size * size;
+        if (tiles.length != numberOfCells) {
+            throw new IllegalArgumentException("Expected " + numberOfCells + " cells, got " + tiles.length);
+        }
+        var seen = new boolean[numberOfCells];
+        var others = new int[numberOfCells - 1];
+        int count = 0;
+        int emptyRow = -1;
+        for (int index = 0; index < numberOfCells; index++) {
+            int id = tiles[index] == BLANK ? numberOfCells - 1 : tiles[index];
+            if (id < 0 || id >= numberOfCells || seen[id]) {
+                throw new IllegalArgumentException("Invalid or repeated cell " + tiles[index]);
+            }
+            seen[id] = true;
+            if (tiles[index] == BLANK) {
+                emptyRow = index / size;
+            } else {
+                others[count++] = tiles[index];
+            }
+        }
+        if (!isSolvable(size, others, emptyRow)) {
+            return -1;
+        }
+        var reduction = new Reduction(size, tiles, moves, stopCondition);
+        return reduction.run() ? reduction.numMoves : STOPPED;
+    }
+
+    /**
+     * The board being reduced
+     */
+    private final class Reduction {
+
+        private final int size;
+        private final int[] grid;
+        private final int[] positions;
+        private final boolean[] locked;
+        private final IntConsumer moves;
+        private final BooleanSupplier stopCondition;
+
+        private int blank;
+
+        /**
+         * First row and column of the part of the board left to solve
+         */
+        private int top = 0;
+        private int left = 0;
+
+        // buffers of route, reused by every search
+        private final int[] tilePath;
+        private final int[] emptyPath;
+        private final int[] queue;
+        private final int[] previous;
+        private final int[] visited;
+        private int visit = 0;
+
+        private long numMoves = 0;
+        private long numExpansions = 0;
+
+        Reduction(int size, int[] tiles, IntConsumer moves, BooleanSupplier stopCondition) {
+            int numberOfCells = size * size;
+            this.size = size;
+            this.grid = tiles.clone();
+            this.positions = new int[numberOfCells - 1];
+            this.locked = new boolean[numberOfCells];
+            this.moves = moves;
+            this.stopCondition = stopCondition;
+            for (int index = 0; index < numberOfCells; index++) {
+                if (grid[index] == BLANK) {
+                    blank = index;
+                } else {
+                    positions[grid[index]] = index;
+                }
+            }
+            // a path is a shortest path from where the greedy walk got stuck, after at most 2 * size greedy steps
+            this.tilePath = new int[numberOfCells + 2 * size];
+            this.emptyPath = new int[numberOfCells + 2 * size];
+            this.queue = new int[numberOfCells];
+            this.previous = new int[numberOfCells];
+            this.visited = new int[numberOfCells];
+        }
+
+        /**
+         * @return false if the stop condition ended the search
+         */
+        boolean run() {
+            while (size - top > FINAL_SIZE || size - left > FINAL_SIZE) {
+                boolean row = size - top >= size - left;
+                if (!placeLine(row)) {
+                    return false;
+                }
+                getSearchListener().iterationFinished(top + left);
+                if (logProgress) {
+                    System.out.println("Placed " + (row ? "row " + (top - 1) : "column " + (left - 1)));
+                }
+            }
+            return solveLastBlock();
+        }
+
+        /**
+         * Places the top row or the left column of the part left to solve, and removes it from that part.
+         * The cells of the line are numbered along it, and the lines under it counted from it, so rows and columns
+         * are placed by the same code.
+         *
+         * @return false if the stop condition, checked after each tile placed, ended the search
+         */
+        private boolean placeLine(boolean row) {
+            int length = row ? size - left : size - top;
+            for (int along = 0; along < length - 2; along++) {
+                int target = cellOf(row, 0, along);
+                moveTile(target, target);
+                locked[target] = true;
+                if (stopCondition.getAsBoolean()) {
+                    return false;
+                }
+            }
+
+            int targetA = cellOf(row, 0, length - 2);
+            int targetB = cellOf(row, 0, length - 1);
+            if (grid[targetA] != targetA || grid[targetB] != targetB) {
+                // park the tiles under their targets, the second one right above the first. Parked next to the last
+                // corner of the board, the first one would leave the corner a single free neighbor, so with 5 lines
+                // it takes the corner itself
+                int lines = row ? size - top : size - left;
+                int depthA = lines == 5 ? 4 : 3;
+                int parkingA = cellOf(row, depthA, length - 1);
+                int parkingB = cellOf(row, depthA - 1, length - 1);
+                moveTile(targetA, parkingA);
+                locked[parkingA] = true;
+                moveTile(targetB, parkingB);
+                locked[parkingB] = true;
+                moveEmpty(cellOf(row, 1, length - 2));
+                locked[parkingA] = false;
+                locked[parkingB] = false;
+
+                var block = new int[2 * (depthA + 1)];
+                for (int depth = 0; depth <= depthA; depth++) {
+                    block[2 * depth] = cellOf(row, depth, length - 2);
+                    block[2 * depth + 1] = cellOf(row, depth, length - 1);
+                }
+                solveBlock(block, targetA, targetB);
+            }
+            locked[targetA] = true;
+            locked[targetB] = true;
+
+            if (row) {
+                top++;
+            } else {
+                left++;
+            }
+            return !stopCondition.getAsBoolean();
+        }
+
+        /**
+         * @param depth The number of lines between the cell and the line being placed
+         * @param along The position of the cell along the line
+         */
+        private int cellOf(boolean row, int depth, int along) {
+            return row ? (top + depth) * size + left + along : (top + along) * size + left + depth;
+        }
+
+        /**
+         * Moves a tile to a cell, without moving the tiles placed
+         */
+        private void moveTile(int tile, int target) {
+            int length = route(positions[tile], target, tilePath);
+            for (int step = 0; step < length; step++) {
+                int from = positions[tile];
+                locked[from] = true;
+                moveEmpty(tilePath[step]);
+                locked[from] = false;
+                moveEmptyTo(from);
+            }
+        }
+
+        /**
+         * Routes the empty cell to a cell, through the cells which are not locked
+         */
+        private void moveEmpty(int target) {
+            int length = route(blank, target, emptyPath);
+            for (int step = 0; step < length; step++) {
+                moveEmptyTo(emptyPath[step]);
+            }
+        }
+
+        /**
+         * Swaps the empty cell with a neighbor cell
+         */
+        private void moveEmptyTo(int neighbor) {
+            int direction;
+            if (neighbor == blank - size) {
+                direction = 0;
+            } else if (neighbor == blank + 1) {
+                direction = 1;
+            } else if (neighbor == blank + size) {
+                direction = 2;
+            } else {
+                direction = 3;
+            }
+            int tile = grid[neighbor];
+            grid[blank] = tile;
+            positions[tile] = blank;
+            grid[neighbor] = BLANK;
+            blank = neighbor;
+            numMoves++;
+            moves.accept(direction);
+        }
+
+        /**
+         * Finds a shortest path between two cells through the cells which are not locked.
+         * The path is walked greedily towards the target while a cell closer to it is free, which covers most of it
+         * on a mostly free board, and only the rest is searched breadth first.
+         *
+         * @param path Receives the cells of the path, the starting cell excluded
+         * @return The length of the path
+         */
+        private int route(int from, int target, int[] path) {
+            int targetRow = target / size;
+            int targetColumn = target % size;
+            int length = 0;
+            int current = from;
+            while (current != target) {
+                int row = current / size;
+                int column = current % size;
+                int next = -1;
+                if (row != targetRow && !locked[current + (row < targetRow ? size : -size)]) {
+                    next = current + (row < targetRow ? size : -size);
+                } else if (column != targetColumn && !locked[current + (column < targetColumn ? 1 : -1)]) {
+                    next = current + (column < targetColumn ? 1 : -1);
+                }
+                if (next < 0) {
+                    return searchRoute(current, target, path, length);
+                }
+                path[length++] = next;
+                current = next;
+            }
+            return length;
+        }
+
+        /**
+         * Breadth first search of the rest of a path
+         */
+        private int searchRoute(int from, int target, int[] path, int length) {
+            visit++;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = from;
+            visited[from] = visit;
+            while (head < tail) {
+                int current = queue[head++];
+                if (current == target) {
+                    int end = length;
+                    for (int cell = current; cell != from; cell = previous[cell]) {
+                        end++;
+                    }
+                    for (int cell = current, index = end - 1; cell != from; cell = previous[cell], index--) {
+                        path[index] = cell;
+                    }
+                    return end;
+                }
+                int row = current / size;
+                int column = current % size;
+                for (int direction = 0; direction < 4; direction++) {
+                    int next;
+                    if (direction == 0 && row > 0) {
+                        next = current - size;
+                    } else if (direction == 1 && column < size - 1) {
+                        next = current + 1;
+                    } else if (direction == 2 && row < size - 1) {
+                        next = current + size;
+                    } else if (direction == 3 && column > 0) {
+                        next = current - 1;
+                    } else {
+                        continue;
+                    }
+                    if (!locked[next] && visited[next] != visit) {
+                        visited[next] = visit;
+                        previous[next] = current;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            throw new IllegalStateException("No route from cell " + from + " to cell " + target);
+        }
+
+        /**
+         * Breadth first search over the positions of two tiles and of the empty cell, all three inside the block,
+         * for the moves of the empty cell inside the block bringing the tiles to their targets.
+         * The other tiles of the block are not tracked, which leaves few enough states to search them all.
+         *
+         * @param block The cells of the block, in which the empty cell and the targets are
+         */
+        private void solveBlock(int[] block, int tileA, int tileB) {
+            int cells = block.length;
+            int goal = indexOf(block, tileA) * cells + indexOf(block, tileB);
+            var previousStates = new int[cells * cells * cells];
+            Arrays.fill(previousStates, -1);
+            int start = stateOf(indexOf(block, positions[tileA]), indexOf(block, positions[tileB]),
+                    indexOf(block, blank), cells);
+            var states = new int[previousStates.length];
+            int head = 0;
+            int tail = 0;
+            states[tail++] = start;
+            previousStates[start] = start;
+            int found = -1;
+            while (head < tail) {
+                int state = states[head++];
+                if (state / cells == goal) {
+                    found = state;
+                    break;
+                }
+                int a = state / (cells * cells);
+                int b = state / cells % cells;
+                int empty = state % cells;
+                for (int next = 0; next < cells; next++) {
+                    int distance = Math.abs(block[next] / size - block[empty] / size)
+                            + Math.abs(block[next] % size - block[empty] % size);
+                    if (distance != 1) {
+                        continue;
+                    }
+                    int child = stateOf(a == next ? empty : a, b == next ? empty : b, next, cells);
+                    if (previousStates[child] < 0) {
+                        previousStates[child] = state;
+                        states[tail++] = child;
+                    }
+                }
+            }
+            if (found < 0) {
+                throw new IllegalStateException("Tiles " + tileA + " and " + tileB + " cannot be placed");
+            }
+
+            int length = 0;
+            for (int state = found; state != start; state = previousStates[state]) {
+                states[length++] = block[state % cells];
+            }
+            for (int step = length - 1; step >= 0; step--) {
+                moveEmptyTo(states[step]);
+            }
+        }
+
+        private static int stateOf(int a, int b, int empty, int cells) {
+            return (a * cells + b) * cells + empty;
+        }
+
+        private static int indexOf(int[] block, int cell) {
+            for (int index = 0; index < block.length; index++) {
+                if (block[index] == cell) {
+                    return index;
+                }
+            }
+            throw new IllegalStateException("Cell " + cell + " is not in the block");
+        }
+
+        /**
+         * Solves the part left, at most 3x3, with IDA*
+         *
+         * @return false if the stop condition ended the search
+         */
+        private boolean solveLastBlock() {
+            int blockSize = size - top;
+            var state = TaquinBoardState.ofSize(blockSize);
+            for (int y = 0; y < blockSize; y++) {
+                for (int x = 0; x < blockSize; x++) {
+                    int tile = grid[(top + y) * size + left + x];
+                    // ids of the block, numbered as the cells of a board of its size
+                    short id = tile == BLANK ? TaquinBoardState.EMPTY_ID :
+                            (short) ((tile / size - top) * blockSize + tile % size - left);
+                    state.addCell(new Position(x, y), id);
+                }
+            }
+
+            var blockHeuristic = new ManhattanDistanceHeuristic(new TargetBoardState(blockSize), true);
+            var search = new InPlaceSearch(blockHeuristic, blockSize, InPlaceSearch.cellsOf(state), new int[0],
+                    stopCondition, getSearchListener());
+            int estimate = blockHeuristic.getEstimate(state);
+            int bound = estimate;
+            while (true) {
+                int result = search.solveForBound(0, estimate, bound, -1);
+                if (search.isStopped()) {
+                    return false;
+                }
+                if (search.isSolutionFound()) {
+                    break;
+                }
+                if (result == Integer.MAX_VALUE) {
+                    throw new IllegalStateException("The last block cannot be solved");
+                }
+                bound = result;
+            }
+            numExpansions += search.getNumExpansions();
+
+            for (int direction : search.getSolution()) {
+                moveEmptyTo(switch (direction) {
+                    case 0 -> blank - size;
+                    case 1 -> blank + 1;
+                    case 2 -> blank + size;
+                    default -> blank - 1;
+                });
+            }
+            return true;
+        }
+    }
+}
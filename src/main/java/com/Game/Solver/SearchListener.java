@@ -0,0 +1,55 @@
+package com.Game.Solver;
+
+import java.util.List;
+
+/**
+ * Observer of the progress of a search, set on an algorithm with TaquinSolutionAlgorithm.setSearchListener.
+ * The algorithms call it from their inner loops, so every method does nothing by default and NONE, the listener of
+ * the algorithms nobody observes, is inlined away by the JIT. The parallel algorithms call it from several threads.
+ * See SearchMetrics for a listener counting the events.
+ */
+public interface SearchListener {
+
+    SearchListener NONE = new SearchListener() {
+    };
+
+    /**
+     * A node is about to be expanded
+     *
+     * @param depth    The number of moves from the initial state to the node
+     * @param estimate The heuristic estimate of the node, without its depth
+     */
+    default void nodeExpanded(int depth, int estimate) {
+    }
+
+    /**
+     * A child of the node expanded is generated
+     *
+     * @param duplicate Whether its state was already seen, in which case the search drops it
+     */
+    default void nodeGenerated(boolean duplicate) {
+    }
+
+    /**
+     * @param size The number of nodes in the frontier, reported after each expansion
+     */
+    default void frontierSize(long size) {
+    }
+
+    /**
+     * An iteration of the search is over, such as a depth-first search up to a bound of IDA*
+     *
+     * @param bound The bound of the iteration, or its number for the searches without bounds
+     */
+    default void iterationFinished(int bound) {
+    }
+
+    /**
+     * An anytime search found a solution, shorter than the previous ones or with a tighter bound
+     *
+     * @param solutionSteps      The solution
+     * @param suboptimalityBound The solution is at most this factor longer than an optimal one, 1 once it is optimal
+     */
+    default void solutionImproved(List<SolutionStep> solutionSteps, double suboptimalityBound) {
+    }
+}
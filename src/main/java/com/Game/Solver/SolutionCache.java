@@ -0,0 +1,252 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.Position;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Solutions already found, keyed by the solver which found them and the canonical encoding of the initial board.
+ * A solution is stored as its moves, one letter per direction taken by the empty cell (U, R, D or L).
+ * <p>
+ * The solutions are kept in memory in a map evicting the least recently used ones past its capacity. They can also be
+ * appended to a file, read back when the cache is created, so they survive restarts. Only an index of the file is
+ * kept in memory: the solutions evicted from memory are read back from the file when they are asked for again.
+ * <p>
+ * Every board along an optimal solution is solved optimally by the rest of the moves. When a solution is stored as
+ * optimal, each of these suffixes is stored as well, so the boards met along the way are answered too.
+ * All methods are synchronized, a cache can be shared by solvers running in parallel.
+ */
+public class SolutionCache {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final String MOVE_LETTERS = "URDL";
+
+    /**
+     * Offsets in the file are stored in the high bits of the index, and the number of moves to skip in the low bits
+     */
+    private static final int SKIP_BITS = 16;
+
+    private final Map<String, String> entries;
+    private final Path file;
+    private final Map<String, Long> fileIndex = new HashMap<>();
+    private long fileLength = 0;
+
+    /**
+     * A cache held in memory only
+     *
+     * @param capacity The number of solutions kept in memory, suffixes included
+     */
+    public SolutionCache(int capacity) {
+        this.entries = leastRecentlyUsedMap(capacity);
+        this.file = null;
+    }
+
+    /**
+     * A cache backed by a file, created if it does not exist.
+     * Lines which cannot be read are ignored. A last line cut short, by a process stopped while writing it, is removed
+     * from the file, so that the next solution appended does not end up on the same line.
+     *
+     * @param capacity The number of solutions kept in memory, suffixes included
+     * @param file     The file the solutions are appended to
+     * @throws IOException if the file cannot be read
+     */
+    public SolutionCache(int capacity, Path file) throws IOException {
+        this.entries = leastRecentlyUsedMap(capacity);
+        this.file = file;
+        if (!Files.exists(file)) {
+            return;
+        }
+        long offset = 0;
+        long position = 0;
+        try (var input = new BufferedInputStream(Files.newInputStream(file))) {
+            var line = new StringBuilder();
+            int read;
+            while ((read = input.read()) != -1) {
+                position++;
+                if (read != '\n') {
+                    line.append((char) read); // the file is ASCII
+                    continue;
+                }
+                indexLine(line.toString(), offset);
+                line.setLength(0);
+                offset = position;
+            }
+        }
+        if (offset < position) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(offset);
+            }
+        }
+        fileLength = offset;
+    }
+
+    /**
+     * @param solverName The name of the algorithm and heuristic
+     * @param state      The initial board
+     * @return The moves solving the board, null if the board was not solved by this solver
+     */
+    public synchronized String get(String solverName, TaquinBoardState state) {
+        var key = keyOf(solverName, state);
+        var moves = entries.get(key);
+        if (moves != null || file == null) {
+            return moves;
+        }
+        var position = fileIndex.get(key);
+        if (position == null) {
+            return null;
+        }
+        try (var input = new RandomAccessFile(file.toFile(), "r")) {
+            input.seek(position >>> SKIP_BITS);
+            var fields = input.readLine().split("\t");
+            moves = fields[2].substring((int) (position & (1 << SKIP_BITS) - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the solution cache " + file, e);
+        }
+        entries.put(key, moves);
+        return moves;
+    }
+
+    /**
+     * @param solverName The name of the algorithm and heuristic
+     * @param state      The initial board
+     * @param moves      The moves solving the board
+     * @param optimal    Whether the solution is optimal, in which case the boards along it are stored too
+     */
+    public synchronized void put(String solverName, TaquinBoardState state, String moves, boolean optimal) {
+        var key = keyOf(solverName, state);
+        if (file != null && !fileIndex.containsKey(key)) {
+            var line = key + "\t" + moves + "\t" + (optimal ? 1 : 0) + "\n";
+            try {
+                Files.writeString(file, line, StandardCharsets.US_ASCII,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write the solution cache " + file, e);
+            }
+            indexLine(line.substring(0, line.length() - 1), fileLength);
+            fileLength += line.length();
+        }
+
+        entries.put(key, moves);
+        if (!optimal) {
+            return;
+        }
+        var current = state.copy();
+        for (int index = 0; index < moves.length() - 1; index++) {
+            current.moveEmpty(TaquinBoardDirection.values()[directionOf(moves.charAt(index))]);
+            entries.put(keyOf(solverName, current), moves.substring(index + 1));
+        }
+    }
+
+    /**
+     * @return The moves of the steps, one letter per direction taken by the empty cell
+     */
+    public static String movesOf(List<SolutionStep> steps) {
+        return steps.stream()
+                .map(step -> String.valueOf(letterOf(step.instruction().ordinal())))
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * @return The letter of a move, from the ordinal of the direction taken by the empty cell
+     */
+    public static char letterOf(int direction) {
+        return MOVE_LETTERS.charAt(direction);
+    }
+
+    /**
+     * @return The ordinals of the directions of the moves
+     */
+    public static int[] directionsOf(String moves) {
+        return moves.chars().map(SolutionCache::directionOf).toArray();
+    }
+
+    private static int directionOf(int letter) {
+        int direction = MOVE_LETTERS.indexOf(letter);
+        if (direction < 0) {
+            throw new IllegalArgumentException("Unknown move " + (char) letter);
+        }
+        return direction;
+    }
+
+    private static Map<String, String> leastRecentlyUsedMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return The solver name and the size and cells of the board, row by row
+     */
+    private static String keyOf(String solverName, TaquinBoardState state) {
+        var key = new StringBuilder(solverName).append('\t').append(state.getSize()).append(':');
+        for (int y = 0; y < state.getSize(); y++) {
+            for (int x = 0; x < state.getSize(); x++) {
+                if (x > 0 || y > 0) {
+                    key.append(',');
+                }
+                key.append(state.getAtPosition(x, y));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Indexes the board of a line of the file, and the boards along its solution when it is optimal
+     */
+    private void indexLine(String line, long offset) {
+        var fields = line.split("\t");
+        if (fields.length != 4) {
+            return;
+        }
+        try {
+            var state = boardOf(fields[1]);
+            var moves = fields[2];
+            fileIndex.put(keyOf(fields[0], state), offset << SKIP_BITS);
+            if (!fields[3].equals("1")) {
+                return;
+            }
+            for (int index = 0; index < moves.length() - 1 && index + 1 < 1 << SKIP_BITS; index++) {
+                state.moveEmpty(TaquinBoardDirection.values()[directionOf(moves.charAt(index))]);
+                fileIndex.putIfAbsent(keyOf(fields[0], state), offset << SKIP_BITS | index + 1);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Ignoring an invalid line of the solution cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inverse of the board part of keyOf
+     */
+    private static TaquinBoardState boardOf(String encoding) {
+        var separator = encoding.indexOf(':');
+        int size = Integer.parseInt(encoding.substring(0, separator));
+        var cells = encoding.substring(separator + 1).split(",");
+        if (cells.length != size * size) {
+            throw new IllegalArgumentException("Expected " + size * size + " cells, got " + cells.length);
+        }
+        var state = TaquinBoardState.ofSize(size);
+        for (int index = 0; index < cells.length; index++) {
+            state.addCell(new Position(index % size, index / size), Short.parseShort(cells[index]));
+        }
+        return state;
+    }
+}
@@ -12,6 +12,8 @@ import com.Game.Board.TaquinBoardState;
  * The depth represents the total cost of actions, each having a flat cost of 1, to get to this state.
  * And finally the heuristic value is set independently of this class, allowing us to operate on this class
  * via any heuristic.
+ * Heuristics able to update their value from the parent step may also store their raw estimate, without the depth,
+ * which is -1 as long as it is unknown.
  */
 public final class SolutionStep implements Comparable<SolutionStep> {
     private final TaquinBoardState state;
@@ -19,6 +21,7 @@ public final class SolutionStep implements Comparable<SolutionStep> {
     private final TaquinBoardAction instruction;
     private final int depth;
     private int heuristicValue;
+    private int heuristicEstimate;
 
     public SolutionStep(TaquinBoardState state,
                         SolutionStep parentState,
@@ -29,6 +32,7 @@ public final class SolutionStep implements Comparable<SolutionStep> {
         this.instruction = instruction;
         this.depth = depth;
         this.heuristicValue = 0;
+        this.heuristicEstimate = -1;
     }
 
 
@@ -77,6 +81,14 @@ public final class SolutionStep implements Comparable<SolutionStep> {
         this.heuristicValue = heuristicValue;
     }
 
+    public int getHeuristicEstimate() {
+        return heuristicEstimate;
+    }
+
+    public void setHeuristicEstimate(int heuristicEstimate) {
+        this.heuristicEstimate = heuristicEstimate;
+    }
+
     @Override
     public String toString() {
         return "SolutionStep[" +
@@ -0,0 +1,125 @@
+package com.Game.Solver;
+
+import com.Game.Board.TargetBoardState;
+import com.Game.Solver.Heuristic.DisplacedTilesHeuristic;
+import com.Game.Solver.Heuristic.Heuristic;
+import com.Game.Solver.Heuristic.LinearConflictHeuristic;
+import com.Game.Solver.Heuristic.ManhattanDistanceHeuristic;
+import com.Game.Solver.Heuristic.PatternDatabaseHeuristic;
+import com.Game.Solver.Heuristic.UniformCostHeuristic;
+import com.Game.Solver.Heuristic.WalkingDistanceHeuristic;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Builds the heuristics and algorithms from their names, as shown in the drop-down menus of the user interface and
+ * given to the command line.
+ * Unknown names fall back to the Uniform Cost heuristic and to A*, and the heuristics which are not available for
+ * the size of the board fall back to the Manhattan distance.
+ */
+public final class SolverFactory {
+
+    public static final String PATTERN_DATABASE_DIRECTORY = "pattern-databases";
+
+    /**
+     * The algorithms finding optimal solutions, all our heuristics being admissible
+     */
+    private static final Set<String> OPTIMAL_ALGORITHMS =
+            Set.of("IDA*", "InPlaceIDA*", "ParallelIDA*", "IndexedA*", "HDA*", "MM");
+
+    private SolverFactory() {
+    }
+
+    public static Heuristic createHeuristic(String name, TargetBoardState targetBoard) {
+        return createHeuristic(name, targetBoard, () -> false);
+    }
+
+    /**
+     * Same as createHeuristic, giving up on building the heuristic once the stop condition is met, for the
+     * heuristics which take long to build the first time
+     *
+     * @throws CancellationException if the stop condition was met while building the heuristic
+     */
+    public static Heuristic createHeuristic(String name, TargetBoardState targetBoard, BooleanSupplier stopCondition) {
+        return switch (name) {
+            case "Manhattan Distance" -> new ManhattanDistanceHeuristic(targetBoard, true);
+            case "Displacement" -> new DisplacedTilesHeuristic(targetBoard);
+            case "Linear Conflict" -> targetBoard.getSize() <= LinearConflictHeuristic.MAX_SIZE ?
+                    new LinearConflictHeuristic(targetBoard, true) : new ManhattanDistanceHeuristic(targetBoard, true);
+            case "Pattern Database" -> loadPatternDatabases(targetBoard, stopCondition);
+            case "Walking Distance" -> targetBoard.getSize() <= WalkingDistanceHeuristic.MAX_SIZE ?
+                    new WalkingDistanceHeuristic(targetBoard) : new ManhattanDistanceHeuristic(targetBoard, true);
+            default -> new UniformCostHeuristic();
+        };
+    }
+
+    /**
+     * @return A new instance of the algorithm, algorithms keep state during a solve and must not be shared between
+     * threads
+     */
+    public static TaquinSolutionAlgorithm createAlgorithm(String name, Heuristic heuristic, boolean logProgress) {
+        return switch (name) {
+            case "IDA*" -> new IDAStar(heuristic, logProgress);
+            case "InPlaceIDA*" -> new InPlaceIDAStar(heuristic, logProgress);
+            case "ParallelIDA*" -> new ParallelIDAStar(heuristic, logProgress);
+            case "IndexedA*" -> new IndexedAStar(heuristic, logProgress);
+            case "ArenaA*" -> new ArenaAStar(heuristic, logProgress);
+            case "HDA*" -> new HashDistributedAStar(heuristic, logProgress);
+            case "MM" -> new BidirectionalMMSearch(heuristic, logProgress);
+            case "ARA*" -> new ARAStar(heuristic, logProgress);
+            case "Beam" -> new BeamSearch(heuristic, logProgress);
+            case "Reduction" -> new ReductionSolver(heuristic, logProgress);
+            case "GreedyA*" -> new GreedyAstar(heuristic, logProgress);
+            case "BucketA*" -> new AStar(heuristic, logProgress,
+                    () -> new BucketFrontier(BucketFrontier.TieBreaking.DEEPEST_FIRST));
+            default -> new AStar(heuristic, logProgress);
+        };
+    }
+
+    /**
+     * Same as createAlgorithm, A* and GreedyA* writing the steps of their frontier above the memory limit to disk
+     * instead of giving up. The other algorithms do not keep such a frontier and are created as usual.
+     *
+     * @param spillDirectory The directory of the files written by the frontiers
+     * @param memoryLimit    The number of steps of the frontier kept in memory
+     */
+    public static TaquinSolutionAlgorithm createAlgorithm(String name, Heuristic heuristic, boolean logProgress,
+                                                          Path spillDirectory, int memoryLimit) {
+        Supplier<Frontier> frontierSupplier = () -> new SpillingFrontier(spillDirectory, memoryLimit);
+        return switch (name) {
+            case "A*" -> new AStar(heuristic, logProgress, frontierSupplier);
+            case "GreedyA*" -> new GreedyAstar(heuristic, logProgress, frontierSupplier);
+            default -> createAlgorithm(name, heuristic, logProgress);
+        };
+    }
+
+    /**
+     * Puts the cache in front of the algorithm, the solutions of optimal algorithms answering the boards along them
+     *
+     * @param algorithm The algorithm built from the names
+     */
+    public static TaquinSolutionAlgorithm withCache(TaquinSolutionAlgorithm algorithm, String algorithmName,
+                                                    String heuristicName, Heuristic heuristic, SolutionCache cache) {
+        return new CachingSolutionAlgorithm(algorithm, algorithmName + "/" + heuristicName, heuristic, cache,
+                OPTIMAL_ALGORITHMS.contains(algorithmName));
+    }
+
+    /**
+     * Maps the pattern databases of the board size, generating them on first use.
+     * Falls back to the Manhattan distance when the databases are not available for this size.
+     */
+    private static Heuristic loadPatternDatabases(TargetBoardState targetBoard, BooleanSupplier stopCondition) {
+        try {
+            return PatternDatabaseHeuristic.forTarget(targetBoard, Path.of(PATTERN_DATABASE_DIRECTORY),
+                    stopCondition);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Pattern databases unavailable, using Manhattan Distance: " + e.getMessage());
+            return new ManhattanDistanceHeuristic(targetBoard, true);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.Position;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Frontier keeping a bounded number of steps in memory and the others on disk.
+ * The steps in memory are kept in a PriorityQueue. Once it holds more than the memory limit, the steps with the
+ * highest heuristic values, half of them, are sorted and written to a run file as fixed-size binary records.
+ * Polling compares the head of the queue with the head of every run, so the runs are merged back in as the search
+ * reaches their values, reading each file once and in order. When there are too many runs, they are merged into one.
+ * <p>
+ * A record holds the values, depth, instruction and state of the step, the state encoded in a long when it is small
+ * enough. The parent of a spilled step stays in memory, referenced from the record by its index in a table, so the
+ * solution can still be unwound from the steps read back.
+ */
+public class SpillingFrontier implements Frontier {
+
+    public static final int DEFAULT_MEMORY_LIMIT = 1 << 20;
+
+    /**
+     * Number of runs above which they are merged into a single one, to bound the number of open files
+     */
+    private static final int MAX_RUNS = 32;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final int memoryLimit;
+
+    // The capacity is initialized to an arbitrary large value
+    private final PriorityQueue<SolutionStep> steps = new PriorityQueue<>(1000);
+    private final PriorityQueue<Run> runs = new PriorityQueue<>(Comparator.comparing((Run run) -> run.head));
+
+    /**
+     * The parents of the spilled steps, and their index in that list
+     */
+    private final List<SolutionStep> parents = new ArrayList<>();
+    private final Map<SolutionStep, Integer> parentIndexes = new IdentityHashMap<>();
+
+    private int spilledSize = 0;
+
+    /**
+     * Size of the boards, known from the first step added
+     */
+    private int boardSize = -1;
+    private boolean encoded;
+
+    /**
+     * @param directory   The directory of the run files, created if needed
+     * @param memoryLimit The number of steps above which steps are written to disk
+     */
+    public SpillingFrontier(Path directory, int memoryLimit) {
+        if (memoryLimit < 2) {
+            throw new IllegalArgumentException("The memory limit must keep at least 2 steps, got " + memoryLimit);
+        }
+        this.directory = directory;
+        this.memoryLimit = memoryLimit;
+    }
+
+    @Override
+    public void add(SolutionStep step) {
+        if (boardSize < 0) {
+            boardSize = step.state().getSize();
+            encoded = step.state().canBeEncoded();
+        }
+        steps.add(step);
+        if (steps.size() > memoryLimit) {
+            spill();
+        }
+    }
+
+    @Override
+    public SolutionStep poll() {
+        var run = runs.peek();
+        if (run == null || !steps.isEmpty() && steps.peek().compareTo(run.head) <= 0) {
+            return steps.poll();
+        }
+        runs.poll();
+        var step = run.head;
+        spilledSize--;
+        if (run.advance()) {
+            runs.add(run);
+        } else {
+            run.delete();
+        }
+        return step;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return steps.isEmpty() && runs.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return steps.size() + spilledSize;
+    }
+
+    @Override
+    public int sizeInMemory() {
+        return steps.size();
+    }
+
+    /**
+     * Deletes the run files left
+     */
+    @Override
+    public void close() {
+        while (!runs.isEmpty()) {
+            runs.poll().delete();
+        }
+        spilledSize = 0;
+    }
+
+    /**
+     * Writes the half of the steps in memory with the highest values to a new run
+     */
+    private void spill() {
+        var sorted = steps.toArray(new SolutionStep[0]);
+        Arrays.sort(sorted);
+        int kept = sorted.length / 2;
+        steps.clear();
+        steps.addAll(Arrays.asList(sorted).subList(0, kept));
+
+        try {
+            Files.createDirectories(directory);
+            var file = Files.createTempFile(directory, "frontier-", ".run");
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+                for (int index = kept; index < sorted.length; index++) {
+                    write(output, sorted[index]);
+                }
+            }
+            runs.add(new Run(file, sorted.length - kept));
+            spilledSize += sorted.length - kept;
+            if (runs.size() > MAX_RUNS) {
+                mergeRuns();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the frontier to " + directory, e);
+        }
+    }
+
+    /**
+     * Replaces all the runs by a single one holding their steps in order
+     */
+    private void mergeRuns() throws IOException {
+        var file = Files.createTempFile(directory, "frontier-", ".run");
+        int length = 0;
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE))) {
+            while (!runs.isEmpty()) {
+                var run = runs.poll();
+                write(output, run.head);
+                length++;
+                if (run.advance()) {
+                    runs.add(run);
+                } else {
+                    run.delete();
+                }
+            }
+        }
+        runs.add(new Run(file, length));
+    }
+
+    private void write(DataOutputStream output, SolutionStep step) throws IOException {
+        output.writeInt(step.getHeuristicValue());
+        output.writeInt(step.getHeuristicEstimate());
+        output.writeInt(step.depth());
+        output.writeByte(step.instruction() == null ? -1 : step.instruction().ordinal());
+        output.writeInt(step.parentState() == null ? -1 : indexOfParent(step.parentState()));
+        var state = step.state();
+        if (encoded) {
+            output.writeLong(state.encode());
+        } else {
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    output.writeShort(state.getAtPosition(x, y));
+                }
+            }
+        }
+    }
+
+    private SolutionStep read(DataInputStream input) throws IOException {
+        int heuristicValue = input.readInt();
+        int heuristicEstimate = input.readInt();
+        int depth = input.readInt();
+        int instruction = input.readByte();
+        int parent = input.readInt();
+        TaquinBoardState state;
+        if (encoded) {
+            state = TaquinBoardState.decode(boardSize, input.readLong());
+        } else {
+            state = TaquinBoardState.ofSize(boardSize);
+            for (int y = 0; y < boardSize; y++) {
+                for (int x = 0; x < boardSize; x++) {
+                    state.addCell(new Position(x, y), input.readShort());
+                }
+            }
+        }
+        var step = new SolutionStep(state, parent < 0 ? null : parents.get(parent),
+                instruction < 0 ? null : TaquinBoardAction.values()[instruction], depth);
+        step.setHeuristicValue(heuristicValue);
+        step.setHeuristicEstimate(heuristicEstimate);
+        return step;
+    }
+
+    private int indexOfParent(SolutionStep parent) {
+        return parentIndexes.computeIfAbsent(parent, step -> {
+            parents.add(step);
+            return parents.size() - 1;
+        });
+    }
+
+    /**
+     * A sorted run file, read one step ahead
+     */
+    private class Run {
+
+        private final Path file;
+        private final DataInputStream input;
+        private int remaining;
+        private SolutionStep head;
+
+        Run(Path file, int length) throws IOException {
+            this.file = file;
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            this.remaining = length;
+            advance();
+        }
+
+        /**
+         * Reads the next step of the run
+         *
+         * @return false if the run is exhausted
+         */
+        boolean advance() {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            try {
+                head = read(input);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read the frontier from " + file, e);
+            }
+            remaining--;
+            return true;
+        }
+
+        void delete() {
+            try {
+                input.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete " + file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+/**
+ * Abstraction of a map from the states of a search to int values, such as the lowest depth a state was reached with.
+ * Like StateSet, it lets us store the states in the most compact structure available for the board at hand.
+ */
+public interface StateMap {
+
+    /**
+     * Value returned by get() for a missing state
+     */
+    int MISSING = PackedStateMap.MISSING;
+
+    /**
+     * @return The value of the state, MISSING if the state is not in the map
+     */
+    int get(TaquinBoardState state);
+
+    /**
+     * @return The previous value of the state, MISSING if the state was not in the map
+     */
+    int put(TaquinBoardState state, int value);
+
+    /**
+     * @return The value the state had, MISSING if the state was not in the map
+     */
+    int remove(TaquinBoardState state);
+
+    int size();
+
+    /**
+     * @param initialState The initial state of the search, all the states of the search having the same size
+     * @return A primitive map keyed by the encoding of the boards when they can be encoded, a hash map otherwise
+     */
+    static StateMap forState(TaquinBoardState initialState) {
+        if (initialState.canBeEncoded()) {
+            return new PackedStateMap();
+        }
+        return new HashStateMap();
+    }
+}
@@ -0,0 +1,32 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardState;
+
+/**
+ * Abstraction of the set of states already seen by a search algorithm.
+ * Algorithms only need to register a state and know whether it was new, which lets us store the states in the
+ * most compact structure available for the board at hand.
+ */
+public interface StateSet {
+
+    /**
+     * @param state The state to register
+     * @return true if the state was not already in the set
+     */
+    boolean add(TaquinBoardState state);
+
+    boolean contains(TaquinBoardState state);
+
+    int size();
+
+    /**
+     * @param initialState The initial state of the search, all the states of the search having the same size
+     * @return A primitive set keyed by the encoding of the boards when they can be encoded, a hash set otherwise
+     */
+    static StateSet forState(TaquinBoardState initialState) {
+        if (initialState.canBeEncoded()) {
+            return new PackedStateSet();
+        }
+        return new HashStateSet();
+    }
+}
@@ -1,7 +1,10 @@
 package com.Game.Solver;
 
+import com.Game.Board.TaquinBoardAction;
+import com.Game.Board.TaquinBoardDirection;
 import com.Game.Board.TaquinBoardState;
 import com.Game.Cell.CellUtilities;
+import com.Game.Solver.Heuristic.Heuristic;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,8 +16,40 @@ import java.util.List;
  */
 public abstract class TaquinSolutionAlgorithm {
 
+    private SearchListener searchListener = SearchListener.NONE;
+    private CancellationToken cancellationToken = new CancellationToken();
+
     public abstract TaquinSolutionHolder solve(TaquinBoardState initialState, long maxRuntime, long maxFrontierSize);
 
+    /**
+     * @param searchListener Notified of the progress of the next searches, SearchListener.NONE to stop observing
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    public SearchListener getSearchListener() {
+        return searchListener;
+    }
+
+    /**
+     * @param cancellationToken Checked by the next searches along with their runtime budget
+     */
+    public void setCancellationToken(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
+
+    /**
+     * @return true once the search has spent its runtime budget or was cancelled
+     */
+    protected boolean runtimeExpired(long startTime, long maxRuntime) {
+        return maxRuntime > 0 && System.nanoTime() - startTime > maxRuntime || cancellationToken.isCancelled();
+    }
+
+    protected boolean isCancelled() {
+        return cancellationToken.isCancelled();
+    }
+
     /**
      * @param terminalNode The end state of our algorithm
      * @return The sequence of States and Actions to move from our initial state to the terminalNode
@@ -36,6 +71,28 @@ public abstract class TaquinSolutionAlgorithm {
         return instructions;
     }
 
+    /**
+     * Replays directions of the empty cell from the initial state, for the algorithms which only record the moves
+     * they took, to build the SolutionSteps of the solution.
+     *
+     * @param directions The ordinals of the directions taken by the empty cell
+     * @return The solution as returned by unwindSolutionTree
+     */
+    protected List<SolutionStep> replaySolution(TaquinBoardState initialState, Heuristic heuristic, int[] directions) {
+        var allDirections = TaquinBoardDirection.values();
+        var step = new SolutionStep(initialState, null, null, 0);
+        step.setHeuristicValue(heuristic.getResult(step));
+        for (int depth = 0; depth < directions.length; depth++) {
+            var newBoardState = step.state().copy();
+            var direction = allDirections[directions[depth]];
+            var instruction = TaquinBoardAction.mapFromDirection(direction);
+            newBoardState.moveEmpty(direction);
+            step = new SolutionStep(newBoardState, step, instruction, depth + 1);
+            step.setHeuristicValue(heuristic.getResult(step));
+        }
+        return unwindSolutionTree(step);
+    }
+
     /**
      * Because our action can only ever swap the position of our empty cell and a target cell, there can be
      * versions of the puzzle that are unsolvable.
@@ -48,42 +105,70 @@ public abstract class TaquinSolutionAlgorithm {
         // Get the dimension of the puzzle
         int n = state.getSize();
 
-        // Get the linear representation of the puzzle
-        int[] flatPuzzle = new int[n * n];
+        // Get the linear representation of the puzzle, without the empty cell
+        int[] tiles = new int[n * n - 1];
         int index = 0;
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                flatPuzzle[index++] = state.getAtPosition(j, i);
-            }
-        }
-
-        // Count the number of inversions in the puzzle
-        int inversions = 0;
-        for (int i = 0; i < flatPuzzle.length; i++) {
-            for (int j = i + 1; j < flatPuzzle.length; j++) {
-                if (!CellUtilities.cellIsEmpty(flatPuzzle[i]) && !CellUtilities.cellIsEmpty(flatPuzzle[j])
-                        && flatPuzzle[i] > flatPuzzle[j]) {
-                    inversions++;
+                var cell = state.getAtPosition(j, i);
+                if (!CellUtilities.cellIsEmpty(cell) && index < tiles.length) {
+                    tiles[index++] = cell;
                 }
             }
         }
+        return isSolvable(n, tiles, state.getEmptyPosition().getY());
+    }
 
-        System.out.println("inversion : " + inversions);
+    /**
+     * Solvability test of stateIsSolvable on a board given as its tiles.
+     * The inversions are counted while merge sorting the tiles, in O(n² log n) for a board of size n.
+     *
+     * @param tiles    The ids of the cells other than the empty cell, row by row. The array is sorted in place.
+     * @param emptyRow The row of the empty cell
+     * @return true if the board is solvable, false otherwise
+     */
+    static boolean isSolvable(int size, int[] tiles, int emptyRow) {
+        long inversions = countInversions(tiles, new int[tiles.length], 0, tiles.length);
         // Check if the puzzle is solvable
-        if (n % 2 == 1) {
+        if (size % 2 == 1) {
             // If n is odd, the puzzle is solvable if the number of inversions is even
             return inversions % 2 == 0;
-        } else {
-            // If n is even, the puzzle is solvable if the blank is on an odd row counting from the bottom
-            // and the number of inversions is odd, or if the blank is on an even row counting from the bottom
-            // and the number of inversions is even
-            int blankRow = state.getEmptyPosition().getY();
-            int rowNumberFromBottom = state.getSize() - blankRow;
-            if (inversions % 2 == 0) {
-                return rowNumberFromBottom % 2 != 0;
+        }
+        // If n is even, the puzzle is solvable if the blank is on an odd row counting from the bottom
+        // and the number of inversions is even, or if the blank is on an even row counting from the bottom
+        // and the number of inversions is odd
+        int rowNumberFromBottom = size - emptyRow;
+        return (inversions + rowNumberFromBottom) % 2 == 1;
+    }
+
+    /**
+     * Sorts values[from, to) and counts its inversions
+     */
+    private static long countInversions(int[] values, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return 0;
+        }
+        int middle = (from + to) >>> 1;
+        long inversions = countInversions(values, buffer, from, middle) + countInversions(values, buffer, middle, to);
+        int left = from;
+        int right = middle;
+        int index = from;
+        while (left < middle && right < to) {
+            if (values[right] < values[left]) {
+                // values[right] comes before every value left in the first half
+                inversions += middle - left;
+                buffer[index++] = values[right++];
             } else {
-                return rowNumberFromBottom % 2 != 1;
+                buffer[index++] = values[left++];
             }
         }
+        while (left < middle) {
+            buffer[index++] = values[left++];
+        }
+        while (right < to) {
+            buffer[index++] = values[right++];
+        }
+        System.arraycopy(buffer, from, values, from, to - from);
+        return inversions;
     }
 }
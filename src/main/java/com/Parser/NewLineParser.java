@@ -1,12 +1,12 @@
 package com.Parser;
 
 import com.Game.Board.Board;
-import com.Game.Board.DefaultBoardState;
 import com.Game.Board.TaquinBoardState;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -15,18 +15,55 @@ import java.util.Scanner;
  * \n to separate each row of the board
  * , or ; to separate each cell of a row
  * a space to indicate the blank cell
+ * <p>
+ * A file may also hold several boards separated by empty lines, see parseAll.
  */
 public class NewLineParser implements Parser {
 
     @Override
     public Board parseFile(File file) throws FileNotFoundException {
+        var lines = new ArrayList<String>();
+        Scanner scanner = new Scanner(file);
+        while (scanner.hasNext()) {
+            lines.add(scanner.nextLine());
+        }
+        return parseLines(lines);
+    }
+
+    /**
+     * Read every board of a file, the boards being separated by at least one empty line
+     *
+     * @param file the file containing the boards
+     * @return The boards in the order of the file
+     * @throws FileNotFoundException in case of a non-existing file
+     */
+    public List<Board> parseAll(File file) throws FileNotFoundException {
+        var boards = new ArrayList<Board>();
+        var lines = new ArrayList<String>();
+        Scanner scanner = new Scanner(file);
+        while (scanner.hasNextLine()) {
+            String currentLine = scanner.nextLine();
+            if (currentLine.isEmpty()) { // end of a board
+                if (lines.stream().anyMatch(line -> !line.contains("#"))) {
+                    boards.add(parseLines(lines));
+                }
+                lines.clear();
+                continue;
+            }
+            lines.add(currentLine);
+        }
+        if (lines.stream().anyMatch(line -> !line.contains("#"))) {
+            boards.add(parseLines(lines));
+        }
+        return boards;
+    }
+
+    private Board parseLines(List<String> lines) {
 
         ArrayList<ArrayList<Short>> cellContent = new ArrayList<>();
         int lineCount = 0;
 
-        Scanner scanner = new Scanner(file);
-        while (scanner.hasNext()) {
-            String currentLine = scanner.nextLine();
+        for (String currentLine : lines) {
             if (currentLine.contains("#")) { // option to add comment to the file
                 System.out.println("Comment found in file : " + currentLine);
                 continue;
@@ -45,7 +82,7 @@ public class NewLineParser implements Parser {
             }
             lineCount++;
         }
-        DefaultBoardState defaultBoardState = new DefaultBoardState(lineCount);
-        return new Board(defaultBoardState, cellContent);
+        TaquinBoardState boardState = TaquinBoardState.ofSize(lineCount);
+        return new Board(boardState, cellContent);
     }
 }
@@ -1,7 +1,10 @@
 module com.taquin.taquin {
     requires javafx.controls;
     requires javafx.fxml;
+    requires java.management;
+    requires jdk.jfr;
 
     opens com.Application to javafx.fxml;
     exports com.Application;
+    exports com.Game.Solver.Metrics to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.Game.Board;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleCorpusTest {
+
+    private static final long SEED = 42;
+
+    /**
+     * Two full chunks and part of a third
+     */
+    private static final int COUNT = 2 * ScrambleGenerator.CHUNK_LENGTH + 123;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void uniformBoardsAreReadBackAsDrawnFromTheSplitStreams() throws IOException {
+        assertReadBack(4, PuzzleCorpus.UNIFORM);
+        assertReadBack(5, PuzzleCorpus.UNIFORM);
+    }
+
+    @Test
+    void walkedBoardsAreReadBackAsDrawnFromTheSplitStreams() throws IOException {
+        assertReadBack(3, 30);
+        assertReadBack(4, 80);
+    }
+
+    @Test
+    void theCorpusDoesNotDependOnTheNumberOfThreads() throws IOException {
+        for (int moves : new int[]{PuzzleCorpus.UNIFORM, 60}) {
+            var single = directory.resolve("single" + moves + ".bin");
+            var parallel = directory.resolve("parallel" + moves + ".bin");
+            new ScrambleGenerator(4).writeCorpus(single, COUNT, moves, SEED, 1);
+            new ScrambleGenerator(4).writeCorpus(parallel, COUNT, moves, SEED, 4);
+            assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+        }
+    }
+
+    @Test
+    void boardsAreSolvableAndPackedIn8BytesOn4x4() throws IOException {
+        var file = directory.resolve("corpus.bin");
+        new ScrambleGenerator(4).writeCorpus(file, 1000, PuzzleCorpus.UNIFORM, SEED, 2);
+        assertEquals(PuzzleCorpus.HEADER_LENGTH + 1000 * 8, Files.size(file));
+        assertTrue(PuzzleCorpus.isCorpus(file));
+
+        var corpus = PuzzleCorpus.open(file);
+        for (int index = 0; index < corpus.getCount(); index++) {
+            var cells = corpus.getCells(index);
+            assertTrue(ScrambleGenerator.isSolvable(4, cells));
+            assertEquals(TaquinBoardState.ofCells(4, cells).encode(), corpus.getBoardState(index).encode());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> corpus.getCells(1000));
+    }
+
+    @Test
+    void corporaLargerThanASingleMappingAreRejected() {
+        var file = directory.resolve("huge.bin");
+        long maxCount = (PuzzleCorpus.MAX_LENGTH - PuzzleCorpus.HEADER_LENGTH) / PuzzleCorpus.entryLength(4);
+        assertTrue(PuzzleCorpus.fileLength(4, (int) maxCount) <= PuzzleCorpus.MAX_LENGTH);
+        assertTrue(PuzzleCorpus.fileLength(4, (int) maxCount + 1) > PuzzleCorpus.MAX_LENGTH);
+
+        var error = assertThrows(IllegalArgumentException.class, () ->
+                new ScrambleGenerator(4).writeCorpus(file, (int) maxCount + 1, PuzzleCorpus.UNIFORM, SEED, 1));
+        assertTrue(error.getMessage().contains(String.valueOf(maxCount)));
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")));
+    }
+
+    @Test
+    void truncatedCorporaAreRejected() throws IOException {
+        var file = directory.resolve("corpus.bin");
+        new ScrambleGenerator(4).writeCorpus(file, 10, PuzzleCorpus.UNIFORM, SEED, 1);
+        var bytes = Files.readAllBytes(file);
+        var truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleCorpus.open(truncated));
+    }
+
+    /**
+     * Writes a corpus, and checks that it holds the boards drawn one after the other, chunk by chunk, from streams
+     * split in order from the seed, with its header
+     */
+    private void assertReadBack(int size, int moves) throws IOException {
+        var file = directory.resolve("corpus" + size + "_" + moves + ".bin");
+        var generator = new ScrambleGenerator(size);
+        generator.writeCorpus(file, COUNT, moves, SEED, 3);
+
+        var corpus = PuzzleCorpus.open(file);
+        assertEquals(size, corpus.getSize());
+        assertEquals(moves, corpus.getMoves());
+        assertEquals(SEED, corpus.getSeed());
+        assertEquals(COUNT, corpus.getCount());
+
+        var root = new SplittableRandom(SEED);
+        SplittableRandom stream = null;
+        for (int index = 0; index < COUNT; index++) {
+            if (index % ScrambleGenerator.CHUNK_LENGTH == 0) {
+                stream = root.split();
+            }
+            var expected = moves == PuzzleCorpus.UNIFORM ? generator.uniform(stream) : generator.walk(moves, stream);
+            assertArrayEquals(expected, corpus.getCells(index), "Board " + index);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.Game.Solver;
+
+import com.Game.Board.ScrambleGenerator;
+import com.Game.Board.TaquinBoardState;
+import com.Game.Cell.CellUtilities;
+import com.Game.Solver.Heuristic.UniformCostHeuristic;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReductionSolverTest {
+
+    private final ReductionSolver solver = new ReductionSolver(new UniformCostHeuristic(), false);
+
+    @Test
+    void solvesUniformBoardsOfSizes4To12() {
+        var random = new SplittableRandom(18);
+        for (int size = 4; size <= 12; size++) {
+            var generator = new ScrambleGenerator(size);
+            for (int board = 0; board < 40; board++) {
+                assertSolves(size, tilesOf(generator.uniform(random)));
+            }
+        }
+    }
+
+    @Test
+    void solvesBoardsWithTheLastTwoTilesOfALineSwapped() {
+        // the last two tiles of the first row, then of the first column, can only be placed through the block search
+        for (int size = 4; size <= 12; size++) {
+            var tiles = goalTiles(size);
+            swap(tiles, size - 2, size - 1);
+            swap(tiles, size * size - 3, size * size - 2); // keeps the board solvable
+            assertSolves(size, tiles);
+
+            tiles = goalTiles(size);
+            swap(tiles, size * (size - 2), size * (size - 1));
+            swap(tiles, size * size - 3, size * size - 2);
+            assertSolves(size, tiles);
+        }
+    }
+
+    @Test
+    void solvesBoardsCloseToTheGoal() {
+        // most tiles are already at their target, or next to it
+        var random = new SplittableRandom(5);
+        for (int size = 4; size <= 8; size++) {
+            var generator = new ScrambleGenerator(size);
+            for (int board = 0; board < 40; board++) {
+                var tiles = tilesOf(generator.walk(size * size * 4, random));
+                assertSolves(size, tiles);
+            }
+        }
+    }
+
+    @Test
+    void anAlreadySolvedBoardTakesNoMove() {
+        var moves = new Moves(5, goalTiles(5));
+        assertEquals(0, solver.solve(5, goalTiles(5), moves, () -> false));
+        assertEquals(0, moves.count);
+    }
+
+    @Test
+    void anUnsolvableBoardIsReportedWithoutMoves() {
+        var tiles = goalTiles(6);
+        swap(tiles, 0, 1);
+        var moves = new Moves(6, tiles);
+        assertEquals(-1, solver.solve(6, tiles, moves, () -> false));
+        assertEquals(0, moves.count);
+    }
+
+    @Test
+    void theStopConditionEndsTheSearchWithinALine() {
+        int size = 40;
+        var tiles = tilesOf(new ScrambleGenerator(size).uniform(new SplittableRandom(3)));
+        var moves = new Moves(size, tiles);
+        int[] checks = {0};
+        assertEquals(ReductionSolver.STOPPED, solver.solve(size, tiles, moves, () -> ++checks[0] > 5));
+        assertEquals(6, checks[0]);
+        assertTrue(moves.count > 0);
+    }
+
+    @Test
+    void theTilesAreNotModified() {
+        var tiles = tilesOf(new ScrambleGenerator(7).uniform(new SplittableRandom(9)));
+        var copy = tiles.clone();
+        solver.solve(7, tiles, direction -> {
+        }, () -> false);
+        assertArrayEquals(copy, tiles);
+    }
+
+    @Test
+    void invalidTilesAreRejected() {
+        var repeated = goalTiles(4);
+        repeated[0] = 1;
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(4, repeated, direction -> {
+        }, () -> false));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(4, new int[15], direction -> {
+        }, () -> false));
+    }
+
+    @Test
+    void solvesBoardStatesIntoReplayedSteps() {
+        var random = new SplittableRandom(7);
+        for (int size = 4; size <= 6; size++) {
+            var cells = new ScrambleGenerator(size).uniform(random);
+            var solution = solver.solve(TaquinBoardState.ofCells(size, cells), -1, -1);
+            var steps = solution.solutionSteps();
+            assertTrue(steps.get(steps.size() - 1).state().isGoalState());
+        }
+    }
+
+    /**
+     * Solves the board and checks that the moves, replayed on it, are legal and reach the goal
+     */
+    private void assertSolves(int size, int[] tiles) {
+        var moves = new Moves(size, tiles);
+        long length = solver.solve(size, tiles, moves, () -> false);
+        assertEquals(moves.count, length);
+        assertArrayEquals(goalTiles(size), moves.grid, "Board of size " + size + " not solved");
+    }
+
+    private static int[] tilesOf(short[] cells) {
+        var tiles = new int[cells.length];
+        for (int index = 0; index < cells.length; index++) {
+            tiles[index] = CellUtilities.cellIsEmpty(cells[index]) ? ReductionSolver.BLANK : cells[index];
+        }
+        return tiles;
+    }
+
+    private static int[] goalTiles(int size) {
+        var tiles = new int[size * size];
+        for (int index = 0; index < tiles.length - 1; index++) {
+            tiles[index] = index;
+        }
+        tiles[tiles.length - 1] = ReductionSolver.BLANK;
+        return tiles;
+    }
+
+    private static void swap(int[] tiles, int first, int second) {
+        var tile = tiles[first];
+        tiles[first] = tiles[second];
+        tiles[second] = tile;
+    }
+
+    /**
+     * Replays the moves on a copy of the board, failing on a move leaving the board
+     */
+    private static final class Moves implements IntConsumer {
+
+        private final int size;
+        private final int[] grid;
+        private int blank;
+        private long count = 0;
+
+        Moves(int size, int[] tiles) {
+            this.size = size;
+            this.grid = tiles.clone();
+            for (int index = 0; index < grid.length; index++) {
+                if (grid[index] == ReductionSolver.BLANK) {
+                    blank = index;
+                }
+            }
+        }
+
+        @Override
+        public void accept(int direction) {
+            int row = blank / size;
+            int column = blank % size;
+            int next = switch (direction) {
+                case 0 -> row > 0 ? blank - size : -1;
+                case 1 -> column < size - 1 ? blank + 1 : -1;
+                case 2 -> row < size - 1 ? blank + size : -1;
+                case 3 -> column > 0 ? blank - 1 : -1;
+                default -> -1;
+            };
+            assertTrue(next >= 0, "Move " + direction + " leaves the board from cell " + blank);
+            grid[blank] = grid[next];
+            grid[next] = ReductionSolver.BLANK;
+            blank = next;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.Game.Solver;
+
+import com.Game.Board.TaquinBoardDirection;
+import com.Game.Board.TaquinBoardState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolutionCacheTest {
+
+    private static final String SOLVER = "A* Manhattan Distance";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void solutionsAndTheirSuffixesSurviveAReopen() throws IOException {
+        var file = directory.resolve("cache.txt");
+        var board = scrambled("ULURDLDL");
+        var moves = solutionOf("ULURDLDL");
+        new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file).put(SOLVER, board, moves, true);
+
+        var reopened = new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file);
+        assertEquals(moves, reopened.get(SOLVER, board));
+        assertEquals(moves.substring(3), reopened.get(SOLVER, boardAfter(board, moves.substring(0, 3))));
+        assertNull(reopened.get("IDA* Manhattan Distance", board));
+    }
+
+    @Test
+    void suboptimalSolutionsHaveNoSuffixes() throws IOException {
+        var file = directory.resolve("cache.txt");
+        var board = scrambled("LLUU");
+        var moves = solutionOf("LLUU");
+        new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file).put(SOLVER, board, moves, false);
+
+        var reopened = new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file);
+        assertEquals(moves, reopened.get(SOLVER, board));
+        assertNull(reopened.get(SOLVER, boardAfter(board, moves.substring(0, 1))));
+    }
+
+    @Test
+    void evictedSolutionsAreReadBackFromTheFile() throws IOException {
+        var file = directory.resolve("cache.txt");
+        var first = scrambled("UULL");
+        var firstMoves = solutionOf("UULL");
+        var second = scrambled("LULD");
+        var secondMoves = solutionOf("LULD");
+        var cache = new SolutionCache(1, file);
+        cache.put(SOLVER, first, firstMoves, false);
+        cache.put(SOLVER, second, secondMoves, false); // evicts the first one from memory
+
+        assertEquals(firstMoves, cache.get(SOLVER, first));
+        assertEquals(secondMoves, cache.get(SOLVER, second));
+
+        // a suffix of an optimal solution is read back from the line of the whole solution
+        var optimal = scrambled("ULDLUR");
+        var optimalMoves = solutionOf("ULDLUR");
+        cache.put(SOLVER, optimal, optimalMoves, true);
+        var reopened = new SolutionCache(1, file);
+        var suffixBoard = boardAfter(optimal, optimalMoves.substring(0, 2));
+        assertEquals(optimalMoves.substring(2), reopened.get(SOLVER, suffixBoard));
+        assertEquals(firstMoves, reopened.get(SOLVER, first));
+        assertEquals(optimalMoves.substring(2), reopened.get(SOLVER, suffixBoard));
+    }
+
+    @Test
+    void aLastLineCutShortIsDropped() throws IOException {
+        var file = directory.resolve("cache.txt");
+        var first = scrambled("ULDL");
+        var firstMoves = solutionOf("ULDL");
+        new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file).put(SOLVER, first, firstMoves, true);
+        long length = Files.size(file);
+        Files.writeString(file, SOLVER + "\t3:0,1,2", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        var reopened = new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file);
+        assertEquals(length, Files.size(file));
+        assertEquals(firstMoves, reopened.get(SOLVER, first));
+
+        var second = scrambled("LUUR");
+        var secondMoves = solutionOf("LUUR");
+        reopened.put(SOLVER, second, secondMoves, false);
+        var lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        assertEquals(2, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.split("\t").length == 4));
+
+        var again = new SolutionCache(SolutionCache.DEFAULT_CAPACITY, file);
+        assertEquals(firstMoves, again.get(SOLVER, first));
+        assertEquals(secondMoves, again.get(SOLVER, second));
+    }
+
+    /**
+     * @return The 3x3 board the moves of the empty cell lead to from the goal
+     */
+    private static TaquinBoardState scrambled(String moves) {
+        return boardAfter(TaquinBoardState.ofCells(3, InPlaceSearch.goalCells(3)), moves);
+    }
+
+    /**
+     * @return The moves undoing the scramble, back to the goal
+     */
+    private static String solutionOf(String scramble) {
+        var solution = new StringBuilder();
+        for (int direction : SolutionCache.directionsOf(scramble)) {
+            solution.insert(0, SolutionCache.letterOf(InPlaceSearch.opposite(direction)));
+        }
+        return solution.toString();
+    }
+
+    private static TaquinBoardState boardAfter(TaquinBoardState board, String moves) {
+        var state = board.copy();
+        for (int direction : SolutionCache.directionsOf(moves)) {
+            state.moveEmpty(TaquinBoardDirection.values()[direction]);
+        }
+        return state;
+    }
+}